@@ -69,9 +69,9 @@ public class AddWordAction extends AbstractAction {
         if( provider != null ) {
             provider.addWord( word );
         }
-        Dictionary dictionary = SpellChecker.getCurrentDictionary();
+        DictionaryBase dictionary = SpellChecker.getCurrentDictionary();
         dictionary.add( word );
-        dictionary.trimToSize();
+        SpellChecker.mergeAddedWords();
         AutoSpellChecker.refresh( jText );
     }
 
@@ -0,0 +1,237 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Arrays;
+
+/**
+ * A dictionary with a structure of arrays layout. The characters, the offsets of the next nodes and the word end flags
+ * of the items are hold in separate arrays. A position is the index of an item in these arrays and not a position in
+ * a char array with 3 chars per item. The items of a node are sorted and followed by an item with LAST_CHAR.
+ * <p>
+ * The most nodes have only a few items and are scanned linear. Nodes with {@link #WIDE_NODE} or more items, for
+ * example the root node, are scanned 4 characters at once (SWAR, SIMD within a register). The characters of every
+ * wide node are copied a second time into a long array with 4 characters per long. Such nodes are marked with an
+ * additional item before the node. The offset of this item is the negative position of the characters in the long
+ * array minus 1.
+ * <p>
+ * The dictionary is created from any other dictionary after loading. Shared nodes of a minimized dictionary are
+ * shared also in the copy. Run nodes are copied as chains of nodes with one item. It is read only like any other
+ * dictionary. Words that are added later are hold in the overlay.
+ */
+final class ArrayDictionary extends DictionaryBase {
+
+    /** nodes with this count of items or more are scanned 4 characters at once in the packed long array */
+    static final int     WIDE_NODE = 8;
+
+    private final char[] chars;
+
+    private final int[]  children;
+
+    private final long[] wordEnds;
+
+    /** the characters of the wide nodes, 4 per long with the first in the low bits, padded with LAST_CHAR */
+    private final long[] wideChars;
+
+    /** the high bit of every character of a long */
+    private static final long HIGH = 0x8000800080008000L;
+
+    /** the low bit of every character of a long */
+    private static final long LOW  = 0x0001000100010001L;
+
+    /**
+     * Create a dictionary with the words of the tree of another dictionary. The overlay of the other dictionary is not
+     * copied.
+     * @param source the source dictionary
+     */
+    ArrayDictionary( DictionaryBase source ) {
+        char[] newChars = new char[Math.max( 1024, source.size / 3 + 16 )];
+        int[] newChildren = new int[newChars.length];
+        long[] newWordEnds = new long[(newChars.length >> 6) + 1];
+        int count = 0;
+
+        // the new position of every copied source node, the nodes of a minimized dictionary can be shared
+        int[] copied = new int[source.size];
+
+        // pre order walk, the stack hold the source node and the item that need the offset of the new node
+        int[] stackNode = new int[64];
+        int[] stackItem = new int[64];
+        int depth = 0;
+        stackNode[depth] = source.getRoot();
+        stackItem[depth++] = -1;
+        while( depth > 0 ) {
+            depth--;
+            int node = stackNode[depth];
+            int item = stackItem[depth];
+            if( item >= 0 && node >= 0 && copied[node] != 0 ) {
+                newChildren[item] = copied[node];
+                continue;
+            }
+            int width = 0;
+            for( int idx = source.firstItem( node ); idx != -1; idx = source.nextSibling( idx ) ) {
+                width++;
+            }
+            if( count + width + 2 > newChars.length ) {
+                int newLength = Math.max( count + width + 2, 2 * newChars.length );
+                newChars = Arrays.copyOf( newChars, newLength );
+                newChildren = Arrays.copyOf( newChildren, newLength );
+                newWordEnds = Arrays.copyOf( newWordEnds, (newLength >> 6) + 1 );
+            }
+            if( width >= WIDE_NODE || item < 0 ) {
+                // the marker of a wide node, the root has ever an item before it that the root is not on position 0
+                newChars[count] = LAST_CHAR;
+                newChildren[count++] = width >= WIDE_NODE ? -width : 0;
+            }
+            int start = count;
+            if( item >= 0 ) {
+                newChildren[item] = start;
+                if( node >= 0 ) {
+                    copied[node] = start;
+                }
+            }
+            for( int idx = source.firstItem( node ); idx != -1; idx = source.nextSibling( idx ) ) {
+                newChars[count] = source.itemChar( idx );
+                // the source node until the node is copied
+                newChildren[count] = source.nextNode( idx );
+                if( source.isWord( idx ) ) {
+                    newWordEnds[count >> 6] |= 1L << count;
+                }
+                count++;
+            }
+            newChars[count] = LAST_CHAR;
+            newChildren[count++] = 0;
+
+            // push in reverse order that the first child is written first
+            for( int i = start + width - 1; i >= start; i-- ) {
+                if( newChildren[i] != 0 ) {
+                    if( depth == stackNode.length ) {
+                        stackNode = Arrays.copyOf( stackNode, depth * 2 );
+                        stackItem = Arrays.copyOf( stackItem, depth * 2 );
+                    }
+                    stackNode[depth] = newChildren[i];
+                    stackItem[depth++] = i;
+                }
+            }
+        }
+        chars = Arrays.copyOf( newChars, count );
+        children = Arrays.copyOf( newChildren, count );
+        wordEnds = Arrays.copyOf( newWordEnds, (count >> 6) + 1 );
+        size = count;
+        wideChars = packWideNodes( chars, children );
+    }
+
+    /**
+     * Copy the characters of the wide nodes into a long array and replace the width in the marker items with the
+     * position in this array. The LAST_CHAR of a node is copied also. That the scan stops without a count.
+     * @param chars the characters of the items
+     * @param children the offsets of the items and the negative width in the marker items
+     * @return the characters of the wide nodes
+     */
+    private static long[] packWideNodes( char[] chars, int[] children ) {
+        int length = 0;
+        for( int i = 0; i < children.length; i++ ) {
+            if( children[i] < 0 ) {
+                length += (-children[i] + 4) >> 2;
+            }
+        }
+        long[] wide = new long[length];
+        int pos = 0;
+        for( int i = 0; i < children.length; i++ ) {
+            if( children[i] < 0 ) {
+                int lanes = -children[i] + 1;
+                children[i] = -pos - 1;
+                for( int k = 0; k < (lanes + 3) >> 2 << 2; k++ ) {
+                    long c = k < lanes ? chars[i + 1 + k] : LAST_CHAR;
+                    wide[pos + (k >> 2)] |= c << ((k & 3) << 4);
+                }
+                pos += (lanes + 3) >> 2;
+            }
+        }
+        return wide;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getRoot() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int searchChar( int idx, char c ) {
+        int wide = -children[idx - 1] - 1;
+        if( wide >= 0 && c < 0x8000 ) {
+            // the start of a wide node, the characters are compared 4 at once
+            long pattern = c * LOW;
+            for( int i = wide;; i++ ) {
+                // the high bit of a character is set if it is not smaller as c, there is no borrow between the
+                // characters because c is smaller as 0x8000
+                long found = ((wideChars[i] | HIGH) - pattern) & HIGH;
+                if( found != 0 ) {
+                    idx += ((i - wide) << 2) + (Long.numberOfTrailingZeros( found ) >> 4);
+                    return chars[idx] == c ? idx : -1;
+                }
+            }
+        }
+        while( chars[idx] < c ) {
+            idx++;
+        }
+        return chars[idx] == c ? idx : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    char getChar( int idx ) {
+        return chars[idx];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isWordMatch( int idx ) {
+        return (wordEnds[idx >> 6] & (1L << idx)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int readIndex( int idx ) {
+        return children[idx];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int nextItem( int idx ) {
+        return idx + 1;
+    }
+}
@@ -22,6 +22,7 @@
  */
 package com.inet.jortho;
 
+import java.util.List;
 import java.util.Locale;
 
 import javax.swing.*;
@@ -41,10 +42,16 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
     private final JTextComponent                jText;
     private final SpellCheckerOptions options;
 
-    private Dictionary                    dictionary;
+    private DictionaryBase                dictionary;
 
     private Locale                        locale;
 
+    /** count of document modifications, only used in the event dispatch thread */
+    private int                           changeCount;
+
+    /** count of started checks of the completely text, only used in the event dispatch thread */
+    private int                           checkCount;
+
     
     public AutoSpellChecker(JTextComponent text, SpellCheckerOptions options){
         this.jText = text;
@@ -122,6 +129,7 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
      * {@inheritDoc}
      */
     public void insertUpdate( DocumentEvent ev ) {
+        changeCount++;
         checkElements( ev.getOffset(), ev.getLength() );
     }
 
@@ -129,6 +137,7 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
      * {@inheritDoc}
      */
     public void removeUpdate( DocumentEvent ev ) {
+        changeCount++;
         checkElements( ev.getOffset(), 0 );
     }
 
@@ -183,7 +192,7 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
                 return;
 
             // prevent a NPE if the dictionary is currently not loaded.
-            Dictionary dic = dictionary;
+            DictionaryBase dic = dictionary;
             Locale loc = locale;
             if( dic == null || loc == null ){
                 return;
@@ -209,6 +218,7 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
             //the needed objects does not exists
             return;
         }
+        checkCount++;
         if( dictionary == null ) {
             removeHighlights( jText );
             return;
@@ -217,7 +227,17 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
             // no text, no highlights
             return;
         }
+        if( options.isParallelCheck() ) {
+            checkAllParallel();
+        } else {
+            checkAllElements();
+        }
+    }
 
+    /**
+     * Check the completely text paragraph by paragraph in a background thread.
+     */
+    private void checkAllElements() {
         Thread thread = new Thread( new Runnable() {
             public void run() {
                 Document document = jText.getDocument();
@@ -242,6 +262,64 @@ class AutoSpellChecker implements DocumentListener, LanguageChangeListener {
         thread.start();
     }
 
+    /**
+     * Check the completely text on all processors. A snapshot of the text is taken under the read lock of the document
+     * in a background thread. All highlights are replaced at once if the document was not modified while checking,
+     * else the text is checked paragraph by paragraph. The result is dropped if another check of the completely text
+     * was started in the meantime, for example after a word was added to the dictionary.
+     */
+    private void checkAllParallel() {
+        final DictionaryBase dic = dictionary;
+        final Locale loc = locale;
+        final int changes = changeCount;
+        final int check = checkCount;
+        final Document document = jText.getDocument();
+        Thread thread = new Thread( new Runnable() {
+            public void run() {
+                final String[] text = new String[1];
+                document.render( new Runnable() {
+                    public void run() {
+                        try {
+                            text[0] = document.getText( 0, document.getLength() );
+                        } catch( BadLocationException e ) {
+                            SpellChecker.getMessageHandler().handleException( e );
+                        }
+                    }
+                } );
+                if( text[0] == null ) {
+                    return;
+                }
+                final List<Misspelling> misspellings = ParallelChecker.check( text[0], dic, loc, options );
+                SwingUtilities.invokeLater( new Runnable() {
+                    public void run() {
+                        if( check != checkCount || dic != dictionary || document != jText.getDocument() ) {
+                            // the dictionary, the language or the document was changed, there is already a new check
+                            return;
+                        }
+                        if( changes != changeCount ) {
+                            // the offsets are not valid anymore
+                            checkAllElements();
+                            return;
+                        }
+                        removeHighlights( jText );
+                        Highlighter highlighter = jText.getHighlighter();
+                        try {
+                            for( Misspelling misspelling : misspellings ) {
+                                int offset = (int)misspelling.getOffset();
+                                highlighter.addHighlight( offset, offset + misspelling.getLength(), painter );
+                            }
+                        } catch( BadLocationException e ) {
+                            SpellChecker.getMessageHandler().handleException( e );
+                        }
+                    }
+                } );
+            }
+        }, "JOrtho checkall" );
+        thread.setPriority( Thread.NORM_PRIORITY - 1 );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,235 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Check many small texts concurrently with the dictionaries of a {@link TextChecker}. Every request has its own locale
+ * and options. The result is returned as a {@link CompletableFuture}.
+ * <p>
+ * The count of pending requests is limited. If the limit is reached then {@link #submit(CharSequence, Locale,
+ * SpellCheckerOptions)} blocks until a request is finished and {@link #trySubmit(CharSequence, Locale,
+ * SpellCheckerOptions)} returns null. That the producer can't outrun the checker and the memory is bounded.
+ * <p>
+ * Throughput and latency are counted per locale, see {@link #getMetrics()}.
+ * <code><pre>
+ * try( BatchChecker batch = new BatchChecker( checker, 1000 ) ) {
+ *     batch.submit( text, Locale.ENGLISH, null ).thenAccept( misspellings -&gt; ... );
+ * }
+ * </pre></code>
+ */
+public class BatchChecker implements AutoCloseable {
+
+    private final TextChecker                             checker;
+
+    private final Executor                                executor;
+
+    private final ExecutorService                         ownExecutor;
+
+    private final int                                     maxPending;
+
+    private final Semaphore                               pending;
+
+    private final ConcurrentHashMap<Locale, CheckMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Create a batch checker with its own executor. It uses virtual threads if the Java runtime supports it, else a
+     * thread for every processor. The executor is shut down with {@link #close()}.
+     * @param checker the checker with the dictionaries
+     * @param maxPending the max count of requests that are queued or running
+     */
+    public BatchChecker( TextChecker checker, int maxPending ) {
+        this( checker, createExecutor(), maxPending, true );
+    }
+
+    /**
+     * Create a batch checker that run the requests on the given executor. The executor is not shut down with
+     * {@link #close()}.
+     * @param checker the checker with the dictionaries
+     * @param executor the executor for the requests
+     * @param maxPending the max count of requests that are queued or running
+     */
+    public BatchChecker( TextChecker checker, Executor executor, int maxPending ) {
+        this( checker, executor, maxPending, false );
+    }
+
+    private BatchChecker( TextChecker checker, Executor executor, int maxPending, boolean own ) {
+        if( maxPending <= 0 ) {
+            throw new IllegalArgumentException( "maxPending must be positive: " + maxPending );
+        }
+        this.checker = checker;
+        this.executor = executor;
+        this.ownExecutor = own ? (ExecutorService)executor : null;
+        this.maxPending = maxPending;
+        this.pending = new Semaphore( maxPending );
+    }
+
+    /**
+     * Create the default executor. Virtual threads are requested with reflection because they are not available in
+     * older Java versions.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService)Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+        } catch( Exception ex ) {
+            // Java before 21
+        }
+        return Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            private int count;
+
+            public synchronized Thread newThread( Runnable runnable ) {
+                Thread thread = new Thread( runnable, "JOrtho batch " + ++count );
+                thread.setDaemon( true );
+                return thread;
+            }
+        } );
+    }
+
+    /**
+     * Submit a text. If the max count of requests is pending then it blocks until a request is finished.
+     * @param text the text, it should not be modified until the result is available
+     * @param locale the language of the text
+     * @param options the options or null for the default options
+     * @return the misspelled words in the order of the text. The future fails with an IllegalArgumentException if
+     *         there is no dictionary for the locale.
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws NullPointerException if the text or the locale is null
+     */
+    public CompletableFuture<List<Misspelling>> submit( CharSequence text, Locale locale, SpellCheckerOptions options ) throws InterruptedException {
+        checkArguments( text, locale );
+        pending.acquire();
+        return start( text, locale, options );
+    }
+
+    /**
+     * Submit a text if the max count of pending requests is not reached.
+     * @param text the text, it should not be modified until the result is available
+     * @param locale the language of the text
+     * @param options the options or null for the default options
+     * @return the misspelled words in the order of the text or null if there are too many pending requests
+     * @throws NullPointerException if the text or the locale is null
+     */
+    public CompletableFuture<List<Misspelling>> trySubmit( CharSequence text, Locale locale, SpellCheckerOptions options ) {
+        checkArguments( text, locale );
+        if( !pending.tryAcquire() ) {
+            return null;
+        }
+        return start( text, locale, options );
+    }
+
+    /**
+     * Reject a request that can't be checked before a permit is acquired.
+     */
+    private static void checkArguments( CharSequence text, Locale locale ) {
+        if( text == null ) {
+            throw new NullPointerException( "text is null" );
+        }
+        if( locale == null ) {
+            throw new NullPointerException( "locale is null" );
+        }
+    }
+
+    /**
+     * Run a request after the permit was acquired. The permit is released and the future is completed in any case.
+     */
+    private CompletableFuture<List<Misspelling>> start( final CharSequence text, final Locale locale, final SpellCheckerOptions options ) {
+        final long submitTime = System.nanoTime();
+        final CompletableFuture<List<Misspelling>> future = new CompletableFuture<>();
+        try {
+            executor.execute( () -> {
+                long startTime = System.nanoTime();
+                List<Misspelling> result = null;
+                Throwable error = null;
+                try {
+                    result = checker.check( text, locale, options );
+                } catch( Throwable th ) {
+                    error = th;
+                } finally {
+                    try {
+                        long endTime = System.nanoTime();
+                        getMetrics( locale ).record( text.length(), result == null ? -1 : result.size(), endTime - startTime, endTime - submitTime );
+                    } finally {
+                        pending.release();
+                        if( error != null ) {
+                            future.completeExceptionally( error );
+                        } else {
+                            future.complete( result );
+                        }
+                    }
+                }
+            } );
+        } catch( RejectedExecutionException ex ) {
+            pending.release();
+            future.completeExceptionally( ex );
+        }
+        return future;
+    }
+
+    /**
+     * Get the metrics of a locale.
+     */
+    private CheckMetrics getMetrics( Locale locale ) {
+        return metrics.computeIfAbsent( locale, key -> new CheckMetrics() );
+    }
+
+    /**
+     * Get the count of requests that are queued or running.
+     * @return the count
+     */
+    public int getPendingCount() {
+        return maxPending - pending.availablePermits();
+    }
+
+    /**
+     * Get the throughput and latency counters of all locales that was requested. The counters are live and continue
+     * counting.
+     * @return a map from the locale of the requests to its counters
+     */
+    public Map<Locale, CheckMetrics> getMetrics() {
+        return Collections.unmodifiableMap( new HashMap<>( metrics ) );
+    }
+
+    /**
+     * Shut down the own executor. Already submitted requests are finished. An executor that was set in the constructor
+     * is not shut down.
+     */
+    @Override
+    public void close() {
+        if( ownExecutor != null ) {
+            ownExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Arrays;
+
+/**
+ * Reorder the nodes of a dictionary tree that the top levels are placed contiguous at the start of the data. The
+ * minimizer write the nodes in pre order (depth first). Then the nodes of the first characters of a word are spread
+ * over the complete data and every lookup starts with some cache misses. Every lookup use the top levels. If they are
+ * placed in breadth first order then they fill only a few cache lines that stay in the L1/L2 cache.
+ * <p>
+ * The nodes below the top levels are written in pre order after it. That the last hops of a lookup stay near together.
+ * The format of the tree is not changed. Run nodes and shared nodes are moved as a unit and the root stays on position
+ * 0.
+ */
+final class BreadthFirstLayout {
+
+    /**
+     * There is no instance needed. All methods are static.
+     */
+    private BreadthFirstLayout() {
+        /* nothing */
+    }
+
+    /**
+     * Create a copy of a tree with the nodes of the top levels in breadth first order.
+     * @param tree the data of a dictionary with the root node on position 0, the nodes must follow without gaps
+     * @param levels the count of top levels, 0 for a pure pre order, Integer.MAX_VALUE for a pure breadth first order
+     * @return the reordered data
+     */
+    static char[] reorder( char[] tree, int levels ) {
+        if( levels < 0 ) {
+            throw new IllegalArgumentException( "levels: " + levels );
+        }
+        int size = tree.length;
+        if( size <= 1 ) {
+            return tree;
+        }
+        // the new position of every node, the root is the only node on position 0
+        int[] moved = new int[size];
+        int count = nodeLength( tree, 0 );
+
+        // breadth first over the top levels, the queue grows with every placed node
+        int[] queue = new int[64];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        for( int level = 0; level < levels && head < tail; level++ ) {
+            int end = tail;
+            for( ; head < end; head++ ) {
+                int node = queue[head];
+                int length = nodeLength( tree, node );
+                for( int idx = firstItem( tree, node ); idx < node + length - 1; idx += 3 ) {
+                    int next = offset( tree, idx );
+                    if( next != 0 && moved[next] == 0 ) {
+                        moved[next] = count;
+                        count += nodeLength( tree, next );
+                        if( tail == queue.length ) {
+                            queue = Arrays.copyOf( queue, tail * 2 );
+                        }
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        // pre order below the top levels, every not expanded node of the queue is the root of a sub tree
+        int[] stack = new int[64];
+        for( ; head < tail; head++ ) {
+            int depth = 0;
+            stack[depth++] = queue[head];
+            while( depth > 0 ) {
+                int node = stack[--depth];
+                int length = nodeLength( tree, node );
+                // push in reverse order that the first next node is placed first
+                for( int idx = node + length - 4; idx >= firstItem( tree, node ); idx -= 3 ) {
+                    int next = offset( tree, idx );
+                    if( next != 0 && moved[next] == 0 ) {
+                        moved[next] = count;
+                        count += nodeLength( tree, next );
+                        if( depth == stack.length ) {
+                            stack = Arrays.copyOf( stack, depth * 2 );
+                        }
+                        stack[depth++] = next;
+                    }
+                }
+            }
+        }
+
+        // copy the nodes and set the new offsets, nodes that are not reachable are removed
+        char[] target = new char[count];
+        for( int node = 0; node < size; ) {
+            int length = nodeLength( tree, node );
+            int start = moved[node];
+            if( start == 0 && node != 0 ) {
+                node += length;
+                continue;
+            }
+            System.arraycopy( tree, node, target, start, length );
+            for( int idx = firstItem( tree, node ); idx < node + length - 1; idx += 3 ) {
+                int next = offset( tree, idx );
+                if( next != 0 ) {
+                    int newNext = moved[next];
+                    int newIdx = start + idx - node;
+                    target[newIdx + 1] = (char)((tree[idx + 1] & 0x8000) | (newNext >> 16));
+                    target[newIdx + 2] = (char)newNext;
+                }
+            }
+            node += length;
+        }
+        return target;
+    }
+
+    /**
+     * Get the count of chars of a node including the LAST_CHAR. A run node start with a LAST_CHAR and is followed by
+     * its characters, a LAST_CHAR, the item of the last character and the LAST_CHAR of the item.
+     */
+    private static int nodeLength( char[] tree, int node ) {
+        int idx = node;
+        if( tree[idx] == DictionaryBase.LAST_CHAR ) {
+            idx++;
+            while( tree[idx] != DictionaryBase.LAST_CHAR ) {
+                idx++;
+            }
+            idx++;
+        }
+        while( tree[idx] != DictionaryBase.LAST_CHAR ) {
+            idx += 3;
+        }
+        return idx + 1 - node;
+    }
+
+    /**
+     * Get the position of the first item with an offset in a node. For a run node this is the item of the last
+     * character.
+     */
+    private static int firstItem( char[] tree, int node ) {
+        if( tree[node] != DictionaryBase.LAST_CHAR ) {
+            return node;
+        }
+        int idx = node + 1;
+        while( tree[idx] != DictionaryBase.LAST_CHAR ) {
+            idx++;
+        }
+        return idx + 1;
+    }
+
+    /**
+     * Read the offset of the next node of an item.
+     */
+    private static int offset( char[] tree, int idx ) {
+        return ((tree[idx + 1] & 0x7fff) << 16) + tree[idx + 2];
+    }
+}
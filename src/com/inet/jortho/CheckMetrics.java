@@ -0,0 +1,142 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency counters of a {@link BatchChecker} for one language. The counters are updated concurrently
+ * without locks. The values of the getters are not a consistent snapshot while requests are running.
+ */
+public final class CheckMetrics {
+
+    private final LongAdder       requests     = new LongAdder();
+
+    private final LongAdder       errors       = new LongAdder();
+
+    private final LongAdder       characters   = new LongAdder();
+
+    private final LongAdder       misspellings = new LongAdder();
+
+    private final LongAdder       checkNanos   = new LongAdder();
+
+    private final LongAdder       latencyNanos = new LongAdder();
+
+    private final LongAccumulator maxLatency   = new LongAccumulator( Math::max, 0 );
+
+    /**
+     * Created from the BatchChecker only.
+     */
+    CheckMetrics() {
+        //empty block
+    }
+
+    /**
+     * Record a finished request.
+     * @param length the count of characters of the text
+     * @param found the count of misspelled words or -1 if the check failed
+     * @param checkTime the time of the check itself in nanoseconds
+     * @param latency the time from the submit until the result in nanoseconds
+     */
+    void record( int length, int found, long checkTime, long latency ) {
+        requests.increment();
+        if( found < 0 ) {
+            errors.increment();
+        } else {
+            misspellings.add( found );
+        }
+        characters.add( length );
+        checkNanos.add( checkTime );
+        latencyNanos.add( latency );
+        maxLatency.accumulate( latency );
+    }
+
+    /**
+     * Get the count of finished requests including the failed requests.
+     * @return the count
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Get the count of requests that has failed with an exception.
+     * @return the count
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Get the count of checked characters.
+     * @return the count
+     */
+    public long getCharacterCount() {
+        return characters.sum();
+    }
+
+    /**
+     * Get the count of found misspelled words.
+     * @return the count
+     */
+    public long getMisspellingCount() {
+        return misspellings.sum();
+    }
+
+    /**
+     * Get the count of checked characters per second of check time. The time in the queue is not included.
+     * @return the throughput of a single thread
+     */
+    public double getThroughput() {
+        long nanos = checkNanos.sum();
+        return nanos == 0 ? 0 : characters.sum() * 1e9 / nanos;
+    }
+
+    /**
+     * Get the average time from the submit of a request until its result is available.
+     * @return the latency in nanoseconds
+     */
+    public long getAverageLatency() {
+        long count = requests.sum();
+        return count == 0 ? 0 : latencyNanos.sum() / count;
+    }
+
+    /**
+     * Get the largest time from the submit of a request until its result is available.
+     * @return the latency in nanoseconds
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Return the counters for debugging.
+     */
+    @Override
+    public String toString() {
+        return "requests=" + getRequestCount() + " errors=" + getErrorCount() + " characters=" + getCharacterCount() + " misspellings="
+                        + getMisspellingCount() + " throughput=" + (long)getThroughput() + " chars/s avgLatency=" + getAverageLatency() / 1000
+                        + " us maxLatency=" + getMaxLatency() / 1000 + " us";
+    }
+}
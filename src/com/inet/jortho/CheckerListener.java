@@ -50,7 +50,7 @@ public class CheckerListener implements PopupMenuListener, LanguageChangeListene
 
     private final JComponent          menu;
 
-    private Dictionary                dictionary;
+    private DictionaryBase            dictionary;
 
     private Locale                    locale;
 
@@ -132,7 +132,7 @@ public class CheckerListener implements PopupMenuListener, LanguageChangeListene
                     return;
                 }
 
-                List<Suggestion> list = dictionary.searchSuggestions( word );
+                List<Suggestion> list = dictionary.searchSuggestions( word, options.getSuggestionsLimitMenu() );
 
                 //Disable then menu item if there are no suggestions
                 menu.setEnabled( list.size() > 0 );
@@ -0,0 +1,300 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * A precomputed index of delete variants (symmetric delete). For every word of the dictionary all variants with up to
+ * {@link #MAX_DISTANCE} deleted characters are hashed. On searching the same variants of the misspelled word are
+ * hashed. Every word with a common variant is a candidate. The candidates are rated with the same rules as the tree
+ * walk of {@link SuggestionSearch}: wrong characters, missing and additional characters and transposed letters.
+ * <p>
+ * The search cost is a few hash probes and does not depend on the position of the typo. The tree walk can prune
+ * only late if the typo is near the start of the word. The index finds only words with a distance of up to 2 edits.
+ * The tree walk can find also words with more edits if the misspelled word is long.
+ * <p>
+ * Only the variants of the first {@link #PREFIX_LENGTH} characters are indexed. This reduce the count of entries a
+ * lot. The index need some bytes for every entry. That the count of entries is limited on creation.
+ * <p>
+ * The index is read only and thread safe. The words of the overlay of a dictionary are not included.
+ */
+final class DeleteIndex implements SuggestionEngine {
+
+    /** the max count of deleted characters in the words and in the misspelled word */
+    static final int         MAX_DISTANCE  = 2;
+
+    /** only the deletes of the first characters are indexed */
+    static final int         PREFIX_LENGTH = 7;
+
+    /** the max count of variants of one word */
+    private static final int MAX_VARIANTS  = 1 + PREFIX_LENGTH + PREFIX_LENGTH * (PREFIX_LENGTH - 1) / 2;
+
+    /** the chars of all words */
+    private final char[]     pool;
+
+    /** the start of every word in the pool, the last value is the end of the last word */
+    private final int[]      offsets;
+
+    /** open addressing hash table with the hashes of the variants */
+    private final int[]      keys;
+
+    /** the position of the posting list + 1 for every slot, 0 is an empty slot */
+    private final int[]      starts;
+
+    /** the posting lists, the count of words followed by the word numbers */
+    private final int[]      postings;
+
+    private DeleteIndex( char[] pool, int[] offsets, int[] keys, int[] starts, int[] postings ) {
+        this.pool = pool;
+        this.offsets = offsets;
+        this.keys = keys;
+        this.starts = starts;
+        this.postings = postings;
+    }
+
+    /**
+     * Create the index for the words of a dictionary.
+     * @param dictionary the dictionary
+     * @param maxEntries the max count of indexed variants
+     * @return the index or null if the dictionary has more variants as the limit
+     */
+    static DeleteIndex create( DictionaryBase dictionary, int maxEntries ) {
+        char[] pool = new char[4096];
+        int poolSize = 0;
+        int[] offsets = new int[1024];
+        int wordCount = 0;
+        long[] pairs = new long[4096];
+        int pairCount = 0;
+        int[] hashes = new int[MAX_VARIANTS];
+
+        Iterator<String> words = dictionary.words();
+        while( words.hasNext() ) {
+            String word = words.next();
+            int length = word.length();
+            if( poolSize + length > pool.length ) {
+                pool = Arrays.copyOf( pool, Math.max( poolSize + length, 2 * pool.length ) );
+            }
+            word.getChars( 0, length, pool, poolSize );
+            int count = variants( pool, poolSize, length, hashes );
+            if( pairCount + count > maxEntries ) {
+                return null;
+            }
+            if( pairCount + count > pairs.length ) {
+                pairs = Arrays.copyOf( pairs, Math.max( pairCount + count, 2 * pairs.length ) );
+            }
+            for( int i = 0; i < count; i++ ) {
+                // the hash in the high bits that the sort groups the words of a variant
+                pairs[pairCount++] = ((long)hashes[i] << 32) | wordCount;
+            }
+            if( wordCount + 2 > offsets.length ) {
+                offsets = Arrays.copyOf( offsets, 2 * offsets.length );
+            }
+            offsets[wordCount++] = poolSize;
+            poolSize += length;
+        }
+        offsets[wordCount] = poolSize;
+        Arrays.sort( pairs, 0, pairCount );
+
+        // count the different variants and the different pairs
+        int keyCount = 0;
+        int uniqueCount = 0;
+        for( int i = 0; i < pairCount; i++ ) {
+            if( i == 0 || pairs[i] != pairs[i - 1] ) {
+                uniqueCount++;
+                if( i == 0 || (pairs[i] >>> 32) != (pairs[i - 1] >>> 32) ) {
+                    keyCount++;
+                }
+            }
+        }
+
+        int tableSize = 4;
+        while( tableSize < keyCount * 2 ) {
+            tableSize <<= 1;
+        }
+        int mask = tableSize - 1;
+        int[] keys = new int[tableSize];
+        int[] starts = new int[tableSize];
+        int[] postings = new int[keyCount + uniqueCount];
+        int p = 0;
+        for( int i = 0; i < pairCount; ) {
+            int key = (int)(pairs[i] >>> 32);
+            int header = p++;
+            for( int first = i; i < pairCount && (int)(pairs[i] >>> 32) == key; i++ ) {
+                if( i == first || pairs[i] != pairs[i - 1] ) {
+                    postings[p++] = (int)pairs[i];
+                }
+            }
+            postings[header] = p - header - 1;
+            int slot = key & mask;
+            while( starts[slot] != 0 ) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            starts[slot] = header + 1;
+        }
+        return new DeleteIndex( Arrays.copyOf( pool, poolSize ), Arrays.copyOf( offsets, wordCount + 1 ), keys, starts, postings );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void search( Suggestions list, String word ) {
+        int length = word.length();
+        char[] chars = word.toCharArray();
+        int[] hashes = new int[MAX_VARIANTS];
+        int count = variants( chars, 0, length, hashes );
+
+        // collect the candidates
+        int[] candidates = new int[32];
+        int candidateCount = 0;
+        int mask = keys.length - 1;
+        for( int i = 0; i < count; i++ ) {
+            int key = hashes[i];
+            int slot = key & mask;
+            while( starts[slot] != 0 ) {
+                if( keys[slot] == key ) {
+                    int p = starts[slot] - 1;
+                    int n = postings[p];
+                    if( candidateCount + n > candidates.length ) {
+                        candidates = Arrays.copyOf( candidates, Math.max( candidateCount + n, 2 * candidates.length ) );
+                    }
+                    System.arraycopy( postings, p + 1, candidates, candidateCount, n );
+                    candidateCount += n;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        Arrays.sort( candidates, 0, candidateCount );
+
+        // rate the candidates
+        int[][] rows = new int[3][length + MAX_DISTANCE + 2];
+        for( int i = 0; i < candidateCount; i++ ) {
+            int candidate = candidates[i];
+            if( i > 0 && candidate == candidates[i - 1] ) {
+                continue;
+            }
+            int start = offsets[candidate];
+            int wordLength = offsets[candidate + 1] - start;
+            if( Math.abs( wordLength - length ) > MAX_DISTANCE ) {
+                continue;
+            }
+            list.add( pool, start, wordLength, distance( chars, length, start, wordLength, rows ) );
+        }
+    }
+
+    /**
+     * Calculate the dissimilarity with the weights of the tree walk. This is a Damerau-Levenshtein distance with
+     * adjacent transpositions.
+     * @param chars the misspelled word
+     * @param length the length of the misspelled word
+     * @param start the start of the candidate in the pool
+     * @param wordLength the length of the candidate
+     * @param rows 3 rows for the distance matrix
+     * @return the dissimilarity
+     */
+    private int distance( char[] chars, int length, int start, int wordLength, int[][] rows ) {
+        int[] before = rows[0];
+        int[] last = rows[1];
+        int[] current = rows[2];
+        for( int j = 0; j <= wordLength; j++ ) {
+            last[j] = j * 5;
+        }
+        for( int i = 1; i <= length; i++ ) {
+            char a = chars[i - 1];
+            current[0] = i * 5;
+            for( int j = 1; j <= wordLength; j++ ) {
+                char b = pool[start + j - 1];
+                int diff = last[j - 1] + (a == b ? 0 : SuggestionSearch.charDiff( a, b ));
+                // additional character in the misspelled word or missing character
+                diff = Math.min( diff, Math.min( last[j], current[j - 1] ) + 5 );
+                if( i > 1 && j > 1 && a != b && a == pool[start + j - 2] && chars[i - 2] == b ) {
+                    diff = Math.min( diff, before[j - 2] + 3 );
+                }
+                current[j] = diff;
+            }
+            int[] temp = before;
+            before = last;
+            last = current;
+            current = temp;
+        }
+        return last[wordLength];
+    }
+
+    /**
+     * Calculate the hashes of all variants of the prefix of a word with up to {@link #MAX_DISTANCE} deleted
+     * characters. Variants without any character are not used.
+     * @param chars the buffer with the word
+     * @param start the start of the word in the buffer
+     * @param length the length of the word
+     * @param hashes the target for the hashes
+     * @return the count of hashes
+     */
+    private static int variants( char[] chars, int start, int length, int[] hashes ) {
+        int prefix = Math.min( length, PREFIX_LENGTH );
+        int count = 0;
+        hashes[count++] = hash( chars, start, prefix, -1, -1 );
+        if( prefix > 1 ) {
+            for( int i = 0; i < prefix; i++ ) {
+                hashes[count++] = hash( chars, start, prefix, i, -1 );
+            }
+        }
+        if( prefix > 2 ) {
+            for( int i = 0; i < prefix; i++ ) {
+                for( int j = i + 1; j < prefix; j++ ) {
+                    hashes[count++] = hash( chars, start, prefix, i, j );
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calculate the hash of a word without the characters at the skip positions.
+     */
+    private static int hash( char[] chars, int start, int length, int skip1, int skip2 ) {
+        int h = length - (skip1 < 0 ? 0 : 1) - (skip2 < 0 ? 0 : 1);
+        for( int i = 0; i < length; i++ ) {
+            if( i != skip1 && i != skip2 ) {
+                h = 31 * h + chars[start + i];
+            }
+        }
+        // mix the bits because the low bits are used for the hash table
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Get the size of the posting lists. This is the count of different variants plus the count of different pairs of
+     * variants and words.
+     */
+    int getEntryCount() {
+        return postings.length;
+    }
+}
@@ -31,7 +31,6 @@ import java.util.zip.*;
  */
 final class Dictionary extends DictionaryBase{
 
-   
     /**
      * Create an empty Dictionary.
      */
@@ -130,30 +129,7 @@ final class Dictionary extends DictionaryBase{
 
 
     /**
-     * Add a word to the tree. If it already exist then it has no effect. 
-     * @param word the new word.
-     */
-    public void add(String word){
-        idx = 0;
-        for(int i=0; i<word.length(); i++){
-            char c = word.charAt(i);
-            searchCharOrAdd( c );
-            if(i == word.length()-1){
-                tree[idx+1] |= 0x8000;
-                return;
-            }
-            int nextIdx = readIndex();
-            if(nextIdx == 0){
-                idx = createNewNode();
-            }else{
-                idx = nextIdx;
-            }
-        }
-    }
-    
-    
-    /**
-     * Convert the directory tree to char array.
+     * Convert the directory tree to char array. Words that was added later are not included.
      * @return a char array that include the data of the dictionary.
      */
     public char[] toArray(){
@@ -163,71 +139,6 @@ final class Dictionary extends DictionaryBase{
     }
     
     
-    /**
-     * Get the size of chars that this dictionary need in memory.
-     */
-    public int getDataSize(){
-        return size;
-    }
-    
-    
-    private void searchCharOrAdd(char c){
-        if(c == LAST_CHAR)
-            throw new RuntimeException("Invalid Character");
-        while(idx<size && tree[idx] < c){
-            idx += 3;
-        }
-        if(idx>=size)
-            throw new RuntimeException("Internal Error");
-        if(tree[idx] == c){
-            return;
-        }
-        insertChar(c);
-        return;
-    }
-
-
-    private void insertChar(char c) {
-        checkSize(size+3);
-        System.arraycopy(tree, idx, tree, idx+3, size-idx);
-        tree[idx] = c;
-        tree[idx+1] = 0;
-        tree[idx+2] = 0;
-        size += 3;
-        for(int i=0; i<size; ){
-            if(tree[i] == LAST_CHAR){
-                i++;
-            }else{
-                int index = (tree[i+1]<<16) + tree[i+2];
-                int indexValue = index & 0x7fffffff;
-                if(indexValue > idx){
-                    index += 3;
-                    tree[i+1] = (char)(index >> 16);
-                    tree[i+2] = (char)(index);
-                }
-                i += 3;
-            }
-        }
-    }
-    
-    
-    /**
-     * Create a new node at end of the array.
-     * On the current idx position is writing the pointer.
-     * The pointer on the current idx position must be 0 without some word end flags (0x8000 on idx+1)
-     * @return Pointer on new node.
-     */
-    private final int createNewNode() {
-        checkSize(size+1);
-        tree[idx+1] |= (char)(size >> 16);
-        tree[idx+2] |= (char)(size);
-        idx = size;
-        tree[idx  ] = LAST_CHAR;
-        size += 1;
-        return idx;
-    }
-
-
     /**
      * Check the size of the array and resize it if needed.
      * @param newSize the requied size
@@ -23,19 +23,47 @@
 package com.inet.jortho;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Base class with the read only functions of a dictionary. The state of a tree traversal is hold only in local
+ * variables and in the per call Suggestions container. That the methods {@link #exist(String)} and
+ * {@link #searchSuggestions(String)} can be called from any count of threads at the same time without locking.
+ * <p>
+ * The tree is never changed after creation. Words that are added later are hold in a small {@link OverlayDictionary}
+ * that is consulted together with the tree. The overlay is copied on write. A reader see the words of the overlay
+ * that was published on start of its call, also if another thread add words at the same time.
+ * <p>
+ * A chain of nodes with only one item can be compressed into a run node. A run node starts with a LAST_CHAR, followed
+ * by the characters of the chain, a LAST_CHAR and the item of the last node of the chain. The walks use the methods
+ * {@link #searchItem(int, char)}, {@link #nextNode(int)}, {@link #firstItem(int)} and {@link #nextSibling(int)} that
+ * handle the characters of a run like nodes with one item. The position of such a character is returned as negative
+ * value.
  * @author Volker Berlin
  */
 abstract class DictionaryBase {
 
     protected char[] tree;
     protected int size;
-    protected int idx;
     
     
     protected static final char LAST_CHAR = 0xFFFF;
     
+    /** words that are added after creation, null if there are no such words, never changed after publishing */
+    private volatile OverlayDictionary overlay;
+    
+    /** source of the generations, unique over all dictionaries */
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+    
+    /** the state of the dictionary for the suggestion cache, changes if a word is added */
+    private volatile long generation = GENERATIONS.incrementAndGet();
+    
+    /** the search for the words of the tree, null for the tree walk */
+    private volatile SuggestionEngine engine;
+    
+    /** the jump table for the first two characters, null if the lookup starts on the root */
+    private volatile PrefixTable prefixTable;
+    
     
     DictionaryBase(char[] tree){
         this.tree = tree;
@@ -51,216 +79,789 @@ abstract class DictionaryBase {
     
     
     /**
-     * Check if the word exist in this dictinary.
-     * @param word the word to check. Can't be null.
-     * @return true if the word exist.
+     * Add a word to the overlay of the dictionary. If it already exist then it has no effect. The cost depends only on
+     * the length of the word and the size of the overlay and not on the size of the dictionary. The word is added to a
+     * copy of the overlay that replace the current overlay. Other threads can read the dictionary at the same time.
+     * Words must be added from one thread only, for example the event dispatch thread.
+     * @param word the new word.
      */
-    public boolean exist(String word){
-        idx = 0;
-        for(int i=0; i<word.length(); i++){
-            char c = word.charAt(i);
-            while(idx<size && tree[idx] < c){
-                idx += 3;
-            }
-            if((idx>=size || tree[idx] != c)){
-                return false;
+    void add( String word ) {
+        OverlayDictionary words = addToCopy( null, word );
+        if( words != null ) {
+            overlay = words;
+            generation = GENERATIONS.incrementAndGet();
+        }
+    }
+    
+    
+    /**
+     * Add a word to a copy of the overlay. The copy is created on the first word that is not in the dictionary.
+     * @param copy the copy of a previous call or null
+     * @param word the new word
+     * @return the copy with the word or null if the word exist already and there was no copy
+     */
+    private OverlayDictionary addToCopy( OverlayDictionary copy, String word ) {
+        if( word.length() == 0 || existInTree( word ) ) {
+            return copy;
+        }
+        if( copy == null ) {
+            OverlayDictionary words = overlay;
+            if( words != null && words.existInTree( word ) ) {
+                return null;
             }
-            if( i == word.length() - 1 && isWordMatch() ) {
-                return true;
+            copy = words == null ? new OverlayDictionary() : new OverlayDictionary( words );
+        }
+        copy.add( word );
+        return copy;
+    }
+    
+    
+    /**
+     * Add all words of the iterator and trim the overlay to its size. Words with only one character are ignored
+     * like on loading a word list with the DictionaryFactory. The overlay is copied only once and the words are
+     * published together.
+     * @param words the new words
+     */
+    void addWords( Iterator<String> words ) {
+        OverlayDictionary copy = null;
+        while( words.hasNext() ) {
+            String word = words.next();
+            if( word != null && word.length() > 1 ) {
+                copy = addToCopy( copy, word );
             }
-            idx = readIndex();
-            if(idx <= 0) return false;
         }
-        return false;
+        if( copy != null ) {
+            copy.trimToSize();
+            overlay = copy;
+            generation = GENERATIONS.incrementAndGet();
+        }
     }
     
     
+    /**
+     * Get the count of words that was added to the overlay.
+     */
+    int getAddedWordCount() {
+        OverlayDictionary words = overlay;
+        return words == null ? 0 : words.getWordCount();
+    }
+    
     
     /**
-     * Returns a list of suggestions if the word is not in the dictionary.
-     * @param word the wrong spelled word. Can't be null.
-     * @return a list of class Suggestion.
-     * @see Suggestion
+     * Get the words that was added to the overlay in sorted order. The words are read from the overlay that is
+     * published on the call.
+     * @return a new list
      */
-    public List<Suggestion> searchSuggestions(String word){
-        if(word.length() == 0 || exist(word)){
-            return new ArrayList<Suggestion>();
+    List<String> getAddedWords() {
+        ArrayList<String> list = new ArrayList<String>();
+        OverlayDictionary words = overlay;
+        if( words != null ) {
+            Iterator<String> iterator = words.words();
+            while( iterator.hasNext() ) {
+                list.add( iterator.next() );
+            }
         }
-        Suggestions suggesions = new Suggestions( Math.min( 20, 4+word.length() ) );
-        idx = 0;
-        searchSuggestions( suggesions, word, 0, 0, 0);
-        List<Suggestion> list = suggesions.getlist();
-        Collections.sort( list );
         return list;
     }
     
     
     /**
-     * It will search with different rules for similar words.
-     * For every rule there are a different difference. The smaller the difference that so similarer.
-     * This method is calling recursive it self.
-     * @param list Container for found words
-     * @param chars until charPosition already map characters, after the part of the original word that still need to map.
-     * @param charPosition character position in char array
-     * @param lastIdx position in the index (dictionary) to the current character position
-     * @param diff the dissimilar up to the current character position
-     */
-    private void searchSuggestions( Suggestions list, CharSequence chars, int charPosition, int lastIdx, int diff){
-        if(diff > list.getMaxDissimilarity()){
-            return;
-        }
-        // First with the correct letters to go on 
-        idx = lastIdx;
-        char currentChar = chars.charAt(charPosition);
-        if(searchChar(currentChar)){
-            if( isWordMatch() ) {
-                if(charPosition+1 == chars.length()){
-                    // exact match at this character position
-                    list.add( new Suggestion(chars, diff));
-                }else{
-                    // a shorter match, we need to cut the string
-                    int length = charPosition+1;
-                    CharSequence chars2 = chars.subSequence( 0, length );
-                    list.add( new Suggestion(chars2, diff + (chars.length()-length)*5));
+     * Create a new Dictionary with the words of the tree and the given words in one tree. The tree is only read. That
+     * this can run in a background thread while the dictionary is used. The overlay is not included.
+     * @param words additional words in sorted order, for example from {@link #getAddedWords()}
+     * @return the new Dictionary
+     */
+    Dictionary createMerged( List<String> words ) {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        Iterator<String> iterator = DictionaryBuilder.merge( words(), words.iterator() );
+        while( iterator.hasNext() ) {
+            builder.add( iterator.next() );
+        }
+        return builder.create();
+    }
+    
+    
+    /**
+     * Get the size of chars that this dictionary need in memory.
+     */
+    public int getDataSize(){
+        OverlayDictionary words = overlay;
+        return words == null ? size : size + words.getDataSize();
+    }
+    
+    
+    /**
+     * Check if the word exist in this dictinary. This method is thread safe.
+     * @param word the word to check. Can't be null.
+     * @return true if the word exist.
+     */
+    public boolean exist(String word){
+        return exist( word, 0, word.length() );
+    }
+    
+    
+    /**
+     * Check if a range of characters exist as word in this dictionary. There is no need to create a String for every
+     * word of a text. This method is thread safe.
+     * @param text the text with the word. Can't be null.
+     * @param start the start of the word in the text
+     * @param end the end of the word in the text, exclusive
+     * @return true if the word exist.
+     */
+    public boolean exist( CharSequence text, int start, int end ) {
+        return start < end && exist( text, start, end, text.charAt( start ) );
+    }
+    
+    
+    /**
+     * Check if a range of characters with another first character exist as word in this dictionary. This is used for
+     * the variants of the capitalization without creating a String.
+     * @param text the text with the word. Can't be null.
+     * @param start the start of the word in the text
+     * @param end the end of the word in the text, exclusive, must be larger as start
+     * @param first the first character of the word, replace the character at start
+     * @return true if the word exist.
+     */
+    boolean exist( CharSequence text, int start, int end, char first ) {
+        if( existInTree( text, start, end, first ) ) {
+            return true;
+        }
+        OverlayDictionary words = overlay;
+        return words != null && words.existInTree( text, start, end, first );
+    }
+    
+    
+    /**
+     * Check if a range of characters exist as word with one of two first characters, for example with both cases of
+     * the first letter. The root node is scanned only once for both characters. The second branch is only walked if
+     * the word is not found in the first branch.
+     * @param text the text with the word. Can't be null.
+     * @param start the start of the word in the text
+     * @param end the end of the word in the text, exclusive, must be larger as start
+     * @param first the first variant of the first character
+     * @param second the second variant of the first character, must be different from first
+     * @return true if one of the variants exist.
+     */
+    boolean exist( CharSequence text, int start, int end, char first, char second ) {
+        if( existInTree( text, start, end, first, second ) ) {
+            return true;
+        }
+        OverlayDictionary words = overlay;
+        return words != null && words.existInTree( text, start, end, first, second );
+    }
+    
+    
+    /**
+     * Check which words of a batch exist in this dictionary. The tokens of a text contain many repeated words. Every
+     * different word is checked only once. The different words are grouped by its first two characters with a radix
+     * sort. The walk of a word starts at the end of the common prefix with the previous word. If the next character
+     * is larger than the character of the previous word then the search in the node starts at the item of the
+     * previous word. This is faster than single calls of {@link #exist(String)} for the tokens of a text. This method
+     * is thread safe.
+     * @param words the words to check. Can't be null and can't contain null.
+     * @return a BitSet with a set bit for every index of an existing word
+     */
+    public BitSet exist( CharSequence[] words ) {
+        int count = words.length;
+        BitSet result = new BitSet( count );
+
+        // remove the repeated words, first[i] is the index of the first equal word
+        int[] first = new int[count];
+        int[] unique = new int[count];
+        int uniqueCount = 0;
+        int[] table = new int[Integer.highestOneBit( Math.max( count, 1 ) ) * 4];
+        int mask = table.length - 1;
+        for( int i = 0; i < count; i++ ) {
+            CharSequence word = words[i];
+            int hash = hashCode( word );
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while( true ) {
+                int entry = table[slot] - 1;
+                if( entry < 0 ) {
+                    table[slot] = i + 1;
+                    first[i] = i;
+                    unique[uniqueCount++] = i;
+                    break;
                 }
-            }
-            idx = readIndex();
-            if( idx > 0 ) {
-                // more characters in the tree
-                if(charPosition+1 == chars.length()){
-                    searchSuggestionsLonger( list, chars, idx, diff + 5);
-                } else {
-                    searchSuggestions( list, chars, charPosition + 1, idx, diff );
+                if( equals( words[entry], word ) ) {
+                    first[i] = entry;
+                    break;
                 }
+                slot = (slot + 1) & mask;
             }
         }
+        table = null;
 
-        
-        // transposed letters and additional letter
-        if(charPosition+1 < chars.length()){
-            idx = lastIdx;
-            currentChar = chars.charAt(charPosition+1);
-            if(searchChar(currentChar)){
-                int tempIdx = idx;
-                
-                //transposed letters (German - Buchstabendreher)
-                idx = readIndex();
-                if( idx > 0 ) {
-                    StringBuilder buffer = new StringBuilder( chars );
-                    buffer.setCharAt( charPosition+1, chars.charAt( charPosition ) );
-                    buffer.setCharAt( charPosition, currentChar );
-                    searchSuggestions( list, buffer, charPosition+1, idx, diff+3);
+        // group the words by the low byte of the first two characters, stable LSD radix sort
+        int[] sorted = new int[uniqueCount];
+        radixPass( words, unique, sorted, uniqueCount, 1 );
+        radixPass( words, sorted, unique, uniqueCount, 0 );
+
+        OverlayDictionary overlayWords = overlay;
+        int root = getRoot();
+        // the position of the found item for every character of the previous word
+        int[] path = new int[32];
+        int pathLength = 0;
+        CharSequence previous = "";
+        for( int u = 0; u < uniqueCount; u++ ) {
+            int wordIdx = unique[u];
+            CharSequence word = words[wordIdx];
+            int length = word.length();
+            int common = 0;
+            int max = Math.min( Math.min( length, previous.length() ), pathLength );
+            while( common < max && word.charAt( common ) == previous.charAt( common ) ) {
+                common++;
+            }
+            if( length > path.length ) {
+                path = Arrays.copyOf( path, Math.max( length, 2 * path.length ) );
+            }
+            boolean exist = false;
+            if( common == length ) {
+                // a prefix of the previous word
+                exist = length > 0 && isWord( path[length - 1] );
+                pathLength = common;
+            } else {
+                int idx;
+                if( common < pathLength && word.charAt( common ) > previous.charAt( common ) ) {
+                    // the same node like the previous word with a larger character
+                    idx = path[common];
+                } else if( common == 0 ) {
+                    idx = root;
+                } else {
+                    idx = nextNode( path[common - 1] );
+                    if( idx == 0 ) {
+                        idx = -1;
+                    }
                 }
-                
-                // Additional character in the misspelled word
-                idx = tempIdx;
-                StringBuilder buffer = new StringBuilder();
-                buffer.append( chars, 0, charPosition );
-                buffer.append( chars, charPosition+1, chars.length() );
-                searchSuggestions( list, buffer, charPosition, lastIdx, diff+5);
+                pathLength = common;
+                while( idx != -1 ) {
+                    idx = searchItem( idx, word.charAt( pathLength ) );
+                    if( idx == -1 ) {
+                        break;
+                    }
+                    path[pathLength++] = idx;
+                    if( pathLength == length ) {
+                        exist = isWord( idx );
+                        break;
+                    }
+                    idx = nextNode( idx );
+                    if( idx == 0 ) {
+                        break;
+                    }
+                }
+            }
+            if( !exist && overlayWords != null && length > 0 ) {
+                exist = overlayWords.existInTree( word, 0, length, word.charAt( 0 ) );
+            }
+            if( exist ) {
+                result.set( wordIdx );
             }
+            previous = word;
         }
 
-        // Missing letters, we need to add one character
-        {
-            int tempIdx = idx = lastIdx;
-            while( idx < size && tree[idx] < LAST_CHAR ) {
-                char newChar = tree[idx];
-                idx = readIndex();
-                if( idx > 0 && newChar != currentChar) {
-                    StringBuilder buffer = new StringBuilder( chars );
-                    buffer.insert( charPosition, newChar );
-                    searchSuggestions( list, buffer, charPosition + 1, idx, diff + 5 );
-                }
-                idx = tempIdx += 3;
+        // the results of the repeated words
+        for( int i = 0; i < count; i++ ) {
+            if( first[i] != i && result.get( first[i] ) ) {
+                result.set( i );
             }
         }
-        
-        // Typos - wrong letters (One character is replaced with any character)
-        if(charPosition < chars.length()){
-            currentChar = chars.charAt(charPosition);
-            int tempIdx = idx = lastIdx;
-            while( idx < size && tree[idx] < LAST_CHAR ) {
-                if( isWordMatch() ){
-                    StringBuilder buffer = new StringBuilder();
-                    buffer.append( chars, 0, charPosition );
-                    buffer.append( tree[idx] );
-                    list.add( new Suggestion( buffer, diff + 5 + (chars.length()-buffer.length())*5 ) );
-                }
-                if(charPosition + 1 < chars.length()){
-                    char newChar = tree[idx];
-                    idx = readIndex();
-                    if( idx > 0 && newChar != currentChar) {
-                        StringBuilder buffer = new StringBuilder( chars );
-                        buffer.setCharAt( charPosition, newChar );
-                        searchSuggestions( list, buffer, charPosition + 1, idx, diff + charDiff( currentChar, newChar ) );
-                    }
-                }
-                idx = tempIdx += 3;
+        return result;
+    }
+    
+    
+    /**
+     * Calculate the hash code of the characters of a CharSequence like String.hashCode().
+     */
+    private static int hashCode( CharSequence word ) {
+        if( word instanceof String ) {
+            return word.hashCode();
+        }
+        int hash = 0;
+        for( int i = 0; i < word.length(); i++ ) {
+            hash = 31 * hash + word.charAt( i );
+        }
+        return hash;
+    }
+    
+    
+    /**
+     * Compare the characters of two CharSequences.
+     */
+    private static boolean equals( CharSequence word1, CharSequence word2 ) {
+        if( word1 instanceof String && word2 instanceof String ) {
+            return word1.equals( word2 );
+        }
+        int length = word1.length();
+        if( length != word2.length() ) {
+            return false;
+        }
+        for( int i = 0; i < length; i++ ) {
+            if( word1.charAt( i ) != word2.charAt( i ) ) {
+                return false;
             }
         }
+        return true;
     }
     
-    private void searchSuggestionsLonger( Suggestions list, CharSequence chars, int lastIdx, int diff){
-        int tempIdx = idx = lastIdx;
-        while(idx<size && tree[idx] < LAST_CHAR){
-            StringBuilder buffer = new StringBuilder();
-            buffer.append( chars );
-            buffer.append( tree[idx] );
-                searchSuggestions( list, buffer, chars.length(), idx, diff );
-            idx = tempIdx += 3;
+    
+    /**
+     * One stable pass of a radix sort with the low byte of a character. Words that are shorter are sorted first.
+     * @param words the words
+     * @param source the indexes of the words in the current order
+     * @param target the indexes in the new order
+     * @param count the count of indexes
+     * @param charIdx the position of the character in the words
+     */
+    private static void radixPass( CharSequence[] words, int[] source, int[] target, int count, int charIdx ) {
+        int[] starts = new int[258];
+        for( int i = 0; i < count; i++ ) {
+            starts[radixKey( words[source[i]], charIdx ) + 1]++;
+        }
+        for( int k = 1; k < starts.length; k++ ) {
+            starts[k] += starts[k - 1];
+        }
+        for( int i = 0; i < count; i++ ) {
+            int idx = source[i];
+            target[starts[radixKey( words[idx], charIdx )]++] = idx;
         }
     }
     
+    
+    /**
+     * Get the bucket of a word for the radix sort, 0 if the word is too short.
+     */
+    private static int radixKey( CharSequence word, int charIdx ) {
+        return charIdx < word.length() ? (word.charAt( charIdx ) & 0xFF) + 1 : 0;
+    }
+    
+    
+    /**
+     * Check if the word exist in the tree without the overlay.
+     * @param word the word to check. Can't be null.
+     * @return true if the word exist.
+     */
+    final boolean existInTree(String word){
+        return word.length() > 0 && existInTree( word, 0, word.length(), word.charAt( 0 ) );
+    }
+    
+    
     /**
-     * Search if the character exist in the current node. If found then the variable <code>idx</code> point to the location.
-     * If not found then it point on the next character (char value) item in the node. 
+     * Check if a range of characters with a replaced first character exist in the tree without the overlay.
+     * @param text the text with the word. Can't be null.
+     * @param start the start of the word in the text
+     * @param end the end of the word in the text, exclusive, must be larger as start
+     * @param first the first character of the word
+     * @return true if the word exist.
+     */
+    final boolean existInTree( CharSequence text, int start, int end, char first ) {
+        PrefixTable table = prefixTable;
+        if( table != null && end - start > 1 ) {
+            int idx = table.get( first, text.charAt( start + 1 ) );
+            if( idx != PrefixTable.UNKNOWN ) {
+                return existInBranch( text, start + 1, end, idx );
+            }
+        }
+        int idx = getRoot();
+        char c = first;
+        for( int i = start + 1;; i++ ) {
+            idx = searchItem( idx, c );
+            if( idx == -1 ) {
+                return false;
+            }
+            if( i == end ) {
+                return isWord( idx );
+            }
+            idx = nextNode( idx );
+            if( idx == 0 ) {
+                return false;
+            }
+            c = text.charAt( i );
+        }
+    }
+    
+    
+    
+    /**
+     * Check if a range of characters exist with one of two first characters in the tree without the overlay.
+     * @param text the text with the word. Can't be null.
+     * @param start the start of the word in the text
+     * @param end the end of the word in the text, exclusive, must be larger as start
+     * @param first the first variant of the first character, this variant is checked first
+     * @param second the second variant of the first character, must be different from first
+     * @return true if one of the variants exist.
+     */
+    final boolean existInTree( CharSequence text, int start, int end, char first, char second ) {
+        PrefixTable table = prefixTable;
+        if( table != null && end - start > 1 ) {
+            char c = text.charAt( start + 1 );
+            int firstIdx = table.get( first, c );
+            int secondIdx = table.get( second, c );
+            if( firstIdx != PrefixTable.UNKNOWN && secondIdx != PrefixTable.UNKNOWN ) {
+                return existInBranch( text, start + 1, end, firstIdx ) || existInBranch( text, start + 1, end, secondIdx );
+            }
+        }
+        // one scan of the sorted root node for both characters
+        char low = first < second ? first : second;
+        char high = first < second ? second : first;
+        int idx = getRoot();
+        while( getChar( idx ) < low ) {
+            idx = nextItem( idx );
+        }
+        int lowIdx = getChar( idx ) == low ? idx : -1;
+        while( getChar( idx ) < high ) {
+            idx = nextItem( idx );
+        }
+        int highIdx = getChar( idx ) == high ? idx : -1;
+        if( first < second ) {
+            return existInBranch( text, start, end, lowIdx ) || existInBranch( text, start, end, highIdx );
+        }
+        return existInBranch( text, start, end, highIdx ) || existInBranch( text, start, end, lowIdx );
+    }
+    
+    
+    /**
+     * Check if the rest of a word exist after the item of a character.
+     * @param text the text with the word
+     * @param start the position of the character of the item in the text
+     * @param end the end of the word in the text, exclusive
+     * @param idx the position of the item of the character or -1 if not found
+     * @return true if the word exist.
+     */
+    private boolean existInBranch( CharSequence text, int start, int end, int idx ) {
+        if( idx == -1 ) {
+            return false;
+        }
+        for( int i = start + 1; i < end; i++ ) {
+            idx = nextNode( idx );
+            if( idx == 0 ) {
+                return false;
+            }
+            idx = searchItem( idx, text.charAt( i ) );
+            if( idx == -1 ) {
+                return false;
+            }
+        }
+        return isWord( idx );
+    }
+    
+    
+    /**
+     * Set the search for the words of the tree. The words of the overlay are ever searched with the tree walk.
+     * @param engine the new engine or null for the tree walk
+     */
+    void setSuggestionEngine( SuggestionEngine engine ) {
+        this.engine = engine;
+        generation = GENERATIONS.incrementAndGet();
+    }
+    
+    
+    /**
+     * Set the jump table for the first two characters of a lookup. The table must be created from this dictionary.
+     * @param table the new table or null for a lookup from the root
+     * @see PrefixTable#create(DictionaryBase)
+     */
+    void setPrefixTable( PrefixTable table ) {
+        this.prefixTable = table;
+    }
+    
+    
+    /**
+     * Get the jump table for the first two characters.
+     * @return the table or null if the lookup starts on the root
+     */
+    PrefixTable getPrefixTable() {
+        return prefixTable;
+    }
+    
+    
+    /**
+     * Get the search for the words of the tree.
+     * @return the engine or null if the tree walk is used
+     */
+    SuggestionEngine getSuggestionEngine() {
+        return engine;
+    }
+    
+    
+    /**
+     * Returns a list of suggestions if the word is not in the dictionary. This method is thread safe.
+     * @param word the wrong spelled word. Can't be null.
+     * @return a list of class Suggestion.
+     * @see Suggestion
+     */
+    public List<Suggestion> searchSuggestions(String word){
+        return searchSuggestions( word, Integer.MAX_VALUE );
+    }
+    
+    
+    /**
+     * Returns the best suggestions if the word is not in the dictionary. The search skip all branches that can not
+     * be part of the result. This is faster as searching all suggestions. The result is the same as the first entries
+     * of {@link #searchSuggestions(String)}. The results are cached in the {@link SuggestionCache} until a word is
+     * added to the dictionary. This method is thread safe.
+     * @param word the wrong spelled word. Can't be null.
+     * @param limit the max count of suggestions
+     * @return a sorted list of class Suggestion.
+     * @see Suggestion
+     */
+    public List<Suggestion> searchSuggestions( String word, int limit ){
+        if(word.length() == 0 || limit <= 0 || exist(word)){
+            return new ArrayList<Suggestion>();
+        }
+        long gen = generation;
+        SuggestionCache cache = SuggestionCache.SHARED;
+        List<Suggestion> list = cache.get( gen, word, limit );
+        if( list != null ) {
+            return list;
+        }
+        Suggestions suggesions = new Suggestions( Math.min( 20, 4+word.length() ), limit );
+        SuggestionSearch search = SuggestionSearch.get();
+        SuggestionEngine wordsEngine = engine;
+        if( wordsEngine != null ) {
+            wordsEngine.search( suggesions, word );
+        } else {
+            search.search( this, suggesions, word, getRoot() );
+        }
+        DictionaryBase words = overlay;
+        if( words != null ) {
+            search.search( words, suggesions, word, words.getRoot() );
+        }
+        list = suggesions.getlist();
+        cache.put( gen, word, limit, list );
+        return list;
+    }
+    
+    
+    /**
+     * Search if the character exist in the node that start on the given position. 
+     * @param idx the position of the first item of the node or of any later item in the node
      * @param c the searching character
-     * @return true if found
+     * @return the position of the found item or -1 if not found
      */
-    private boolean searchChar(char c){
+    int searchChar( int idx, char c ){
         while(idx<size && tree[idx] < c){
             idx += 3;
         }
         if((idx>=size || tree[idx] != c)){
-            return false;
+            return -1;
         }
-        return true;
+        return idx;
+    }
+    
+    /**
+     * Get the position of the root node.
+     */
+    int getRoot(){
+        return 0;
+    }
+    
+    /**
+     * Get the character of the item on the given position. The value LAST_CHAR mark the end of a node.
+     * @param idx the position of an item
+     */
+    char getChar( int idx ){
+        return tree[idx];
     }
     
     /**
-     * Check if on the current item position a word ends.
+     * Check if on the given item position a word ends.
+     * @param idx the position of an item
      */
-    private boolean isWordMatch(){
+    boolean isWordMatch( int idx ){
         return (tree[idx + 1] & 0x8000) > 0;
     }
     
     /**
      * Read the offset in the tree of the next character. 
+     * @param idx the position of an item
+     * @return the position of the next node or 0 if there is no next node
      */
-    final int readIndex(){
+    int readIndex( int idx ){
         return ((tree[idx+1] & 0x7fff)<<16) + tree[idx+2]; 
     }
     
     /**
-     * Returns an int that describe the dissimilarity of the characters. 
-     * The value is ever larger 0. A value of means only a small difference.
-     * @param a first char
-     * @param b second char
-     * @return the dissimilarity
+     * Get the position of the next item in the same node.
+     * @param idx the position of an item
+     * @return the position of the next item or of the end of the node
+     */
+    int nextItem( int idx ){
+        return idx + 3;
+    }
+    
+    /**
+     * Search the item of a character in a node or in a run.
+     * @param node the position of a node or the negative position of a character in a run
+     * @param c the searching character
+     * @return the item, a negative value lower -1 for a character in a run or -1 if not found
+     */
+    final int searchItem( int node, char c ) {
+        if( node >= 0 ) {
+            int idx = searchChar( node, c );
+            return idx >= 0 ? idx : searchRun( node, c );
+        }
+        return getChar( -node ) == c ? node : -1;
+    }
+    
+    /**
+     * Check the first character of a run node.
+     * @param node the position of a node in which the character was not found
+     * @param c the searching character
+     * @return the negative position of the first character of the run or -1 if it is not a run or not found
+     */
+    private int searchRun( int node, char c ) {
+        if( getChar( node ) != LAST_CHAR || node + 1 >= size || getChar( node + 1 ) != c ) {
+            return -1;
+        }
+        return -(node + 1);
+    }
+    
+    /**
+     * Get the next node of an item. The next node of a character in a run is the next character of the run or the
+     * item at the end of the run.
+     * @param item the item, a negative value for a character in a run
+     * @return the next node or 0 if there is no next node
+     */
+    final int nextNode( int item ) {
+        return item >= 0 ? readIndex( item ) : nextInRun( item );
+    }
+    
+    /**
+     * Get the next node of a character in a run.
+     * @param item the negative position of a character in a run
+     * @return the negative position of the next character or the position of the item at the end of the run
+     */
+    private int nextInRun( int item ) {
+        int next = 1 - item;
+        return getChar( next ) == LAST_CHAR ? next + 1 : -next;
+    }
+    
+    /**
+     * Check if a word ends on the item. A word never ends on a character in a run.
+     * @param item the item, a negative value for a character in a run
+     */
+    final boolean isWord( int item ) {
+        return item >= 0 && isWordMatch( item );
+    }
+    
+    /**
+     * Get the character of an item.
+     * @param item the item, a negative value for a character in a run
+     */
+    final char itemChar( int item ) {
+        return getChar( item >= 0 ? item : -item );
+    }
+    
+    /**
+     * Get the first item of a node.
+     * @param node the position of a node or the negative position of a character in a run
+     * @return the first item or -1 if the node is empty
+     */
+    final int firstItem( int node ) {
+        if( node < 0 || getChar( node ) != LAST_CHAR ) {
+            return node;
+        }
+        return node + 1 < size ? -(node + 1) : -1;
+    }
+    
+    /**
+     * Get the next item in the same node.
+     * @param item the item, a negative value for a character in a run
+     * @return the next item or -1 if it was the last item of the node
+     */
+    final int nextSibling( int item ) {
+        if( item < 0 ) {
+            return -1;
+        }
+        int idx = nextItem( item );
+        return getChar( idx ) == LAST_CHAR ? -1 : idx;
+    }
+    
+    /**
+     * Iterate over all words of the tree in sorted order. The words of the overlay are not included.
+     * @return an Iterator over the words
      */
-    private int charDiff( char a, char b ) {
-        a = Character.toLowerCase( a );
-        b = Character.toLowerCase( b );
+    Iterator<String> words(){
+        return new TreeWordIterator();
+    }
+    
+    /**
+     * Depth first iteration over the words of the tree. The stack hold the next item for every character of the
+     * current path.
+     */
+    private final class TreeWordIterator implements Iterator<String> {
+
+        private int[]  stack = new int[16];
+        private char[] chars = new char[16];
+        private int    depth;
+        private String next;
 
-        if( a == b ) {
-            return 1;
+        TreeWordIterator() {
+            if( size > 0 ) {
+                depth = 1;
+                stack[0] = firstItem( getRoot() );
+            }
+            next = findNext();
         }
 
-        if( Character.getType( a ) != Character.getType( b ) ) {
-            return 6;
+        /**
+         * Walk down the tree until the next item with a word end.
+         * @return the next word or null if there are no more words
+         */
+        private String findNext() {
+            while( depth > 0 ) {
+                int d = depth - 1;
+                int idx = stack[d];
+                if( idx == -1 ) {
+                    depth--;
+                    continue;
+                }
+                chars[d] = itemChar( idx );
+                stack[d] = nextSibling( idx );
+                String word = isWord( idx ) ? new String( chars, 0, depth ) : null;
+                int nextIdx = nextNode( idx );
+                if( nextIdx != 0 ) {
+                    if( depth == stack.length ) {
+                        int[] tempStack = new int[depth * 2];
+                        System.arraycopy( stack, 0, tempStack, 0, depth );
+                        stack = tempStack;
+                        char[] tempChars = new char[depth * 2];
+                        System.arraycopy( chars, 0, tempChars, 0, depth );
+                        chars = tempChars;
+                    }
+                    stack[depth++] = firstItem( nextIdx );
+                }
+                if( word != null ) {
+                    return word;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean hasNext() {
+            return next != null;
         }
 
-        return 5;
+        /**
+         * {@inheritDoc}
+         */
+        public String next() {
+            if( next == null ) {
+                throw new NoSuchElementException();
+            }
+            String word = next;
+            next = findNext();
+            return word;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
     }
 }
@@ -0,0 +1,529 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Create a Dictionary from a sorted list of words. Unlike the DictionaryFactory it does not build an object tree of
+ * all words. The nodes are written directly in the flat tree format of the Dictionary. Only the nodes of the current
+ * path are hold on a stack. A node is written if the next word does not start with the prefix of the node. The peak
+ * memory is the size of the final dictionary plus the current path.
+ * <p>
+ * The nodes are written in post order, the children before its parents. The root node is moved to the begin of the
+ * tree on {@link #create()}.
+ * <p>
+ * The words must be sorted in the natural order of Strings like the word lists of JOrtho. If a word is not in order
+ * then the builder switch to a DictionaryFactory with all words that was already added. This is slower and need more
+ * memory but the result is the same.
+ * <p>
+ * In the parallel mode the words are partitioned by the first character. The sub trees of the partitions are build
+ * on a ForkJoinPool and then copied into one tree with relocated offsets. The result is the same tree as in the
+ * sequential mode. The words of the partitions are sorted in the tasks, that unsorted words need not a
+ * DictionaryFactory in this mode. But all words are hold in memory until {@link #create()}.
+ * <p>
+ * The created tree is minimized with the {@link DictionaryMinimizer}, identical sub trees are shared.
+ * @see DictionaryFactory
+ */
+class DictionaryBuilder {
+
+    private char[]            tree;
+    private int               size;
+
+    /** the items of the open nodes, for every character position of the last word one node */
+    private char[][]          levels = new char[16][];
+
+    /** the count of chars in the items of the open nodes */
+    private int[]             levelSizes = new int[16];
+
+    /** the length of the last added word, this is also the count of open nodes without the root */
+    private int               depth;
+
+    /** the fallback for unsorted words, null as long as all words are sorted */
+    private DictionaryFactory factory;
+
+    /** the words of the parallel mode, partitioned by the first character, null in the sequential mode */
+    private final TreeMap<Character, ArrayList<String>> partitions;
+
+    /** the partition of the last word in the parallel mode */
+    private ArrayList<String> lastPartition;
+
+    private static ForkJoinPool pool;
+
+    /**
+     * Create an empty builder in the sequential mode.
+     */
+    public DictionaryBuilder() {
+        this( false );
+    }
+
+    /**
+     * Create an empty builder.
+     * @param parallel true, if the tree should be build with multiple threads
+     */
+    public DictionaryBuilder( boolean parallel ) {
+        partitions = parallel ? new TreeMap<Character, ArrayList<String>>() : null;
+        reset();
+    }
+
+    /**
+     * Get the shared pool for the parallel mode. The count of threads is equals to the count of processors.
+     */
+    private static synchronized ForkJoinPool getPool() {
+        if( pool == null ) {
+            pool = new ForkJoinPool();
+        }
+        return pool;
+    }
+
+    /**
+     * Set the initial state.
+     */
+    private void reset() {
+        tree = new char[10000];
+        // position 0 is reserved that 0 can be used as marker for "no next node"
+        tree[0] = DictionaryBase.LAST_CHAR;
+        size = 1;
+        depth = 0;
+        levelSizes[0] = 0;
+    }
+
+    /**
+     * Load the words from a compressed list of words with UTF8 encoding. The words must be delimited with newlines
+     * and should be sorted.
+     *
+     * @param filename
+     *            the name of the file
+     * @throws IOException
+     *             If an I/O error occurs.
+     * @throws NullPointerException
+     *             If filename is null.
+     */
+    public void loadWordList( URL filename ) throws IOException {
+        loadWords( new WordIterator( filename ) );
+    }
+
+    /**
+     * Add all words of the iterator. Words with only one character are ignored like in the DictionaryFactory.
+     * @param words the words, should be sorted
+     */
+    public void loadWords( Iterator<String> words ) {
+        while( words.hasNext() ) {
+            String word = words.next();
+            if( word != null && word.length() > 1 ) {
+                add( word );
+            }
+        }
+    }
+
+    /**
+     * Add a word. If the word is equals to the last word then it has no effect. If the word is smaller as the last
+     * word then all following words are added to a DictionaryFactory.
+     * @param word the new word.
+     */
+    public void add( String word ) {
+        if( partitions != null ) {
+            addToPartition( word );
+            return;
+        }
+        if( factory != null ) {
+            factory.add( word );
+            return;
+        }
+        int length = word.length();
+        if( length == 0 ) {
+            return;
+        }
+
+        // search the common prefix with the last word
+        int common = 0;
+        while( common < length && common < depth && word.charAt( common ) == lastChar( common ) ) {
+            common++;
+        }
+        if( common == length ) {
+            if( common < depth ) {
+                // the word is a prefix of the last word
+                switchToFactory( word );
+            }
+            // else it is a duplicate
+            return;
+        }
+        if( common < depth && word.charAt( common ) < lastChar( common ) ) {
+            switchToFactory( word );
+            return;
+        }
+        for( int i = common; i < length; i++ ) {
+            if( word.charAt( i ) == DictionaryBase.LAST_CHAR ) {
+                throw new RuntimeException( "Invalid Character" );
+            }
+        }
+
+        // all nodes after the common prefix are complete
+        for( int d = depth - 1; d > common; d-- ) {
+            closeNode( d );
+        }
+        for( int d = common; d < length; d++ ) {
+            addItem( d, word.charAt( d ) );
+        }
+        levels[length - 1][levelSizes[length - 1] - 2] |= 0x8000;
+        depth = length;
+    }
+
+    /**
+     * Create a Dictionary from the added words. After this call the builder is empty.
+     * @return a Dictionary object.
+     */
+    public Dictionary create() {
+        return new Dictionary( DictionaryMinimizer.minimize( createTree() ) );
+    }
+
+    /**
+     * Create the tree data from the added words without minimization. Every node has exactly one parent and there are
+     * no run nodes. Such a tree can be changed in place. After this call the builder is empty.
+     * @return the tree data with the root node on position 0
+     */
+    char[] createTree() {
+        if( partitions != null ) {
+            return createParallel();
+        }
+        if( factory != null ) {
+            char[] result = factory.createTree();
+            factory = null;
+            reset();
+            return result;
+        }
+        closeNodes();
+
+        // move the root node to the begin of the tree
+        int rootSize = levelSizes[0] + 1;
+        int bodySize = size - 1;
+        checkSize( rootSize + bodySize );
+        System.arraycopy( tree, 1, tree, rootSize, bodySize );
+        System.arraycopy( levels[0] == null ? new char[0] : levels[0], 0, tree, 0, rootSize - 1 );
+        tree[rootSize - 1] = DictionaryBase.LAST_CHAR;
+        size = rootSize + bodySize;
+
+        // relocate all offsets, the reserved first char is removed
+        relocate( tree, 0, size, rootSize - 1 );
+
+        //shrink the array
+        char[] temp = new char[size];
+        System.arraycopy( tree, 0, temp, 0, size );
+        reset();
+        return temp;
+    }
+
+    /**
+     * Write all open nodes without the root node to the tree.
+     */
+    private void closeNodes() {
+        for( int d = depth - 1; d > 0; d-- ) {
+            closeNode( d );
+        }
+    }
+
+    /**
+     * Add the offset difference to all offsets in a range of the tree. The range must start and end on node borders.
+     * @param tree the tree data
+     * @param start the start position of the range
+     * @param end the end position of the range
+     * @param delta the difference to add
+     */
+    private static void relocate( char[] tree, int start, int end, int delta ) {
+        for( int i = start; i < end; ) {
+            if( tree[i] == DictionaryBase.LAST_CHAR ) {
+                i++;
+            } else {
+                int offset = ((tree[i + 1] & 0x7fff) << 16) + tree[i + 2];
+                if( offset != 0 ) {
+                    offset += delta;
+                    tree[i + 1] = (char)((tree[i + 1] & 0x8000) | (offset >> 16));
+                    tree[i + 2] = (char)offset;
+                }
+                i += 3;
+            }
+        }
+    }
+
+    /**
+     * Add a word to the partition of its first character.
+     * @param word the new word
+     */
+    private void addToPartition( String word ) {
+        if( word.length() == 0 ) {
+            return;
+        }
+        char c = word.charAt( 0 );
+        ArrayList<String> partition = lastPartition;
+        if( partition == null || partition.get( 0 ).charAt( 0 ) != c ) {
+            partition = partitions.get( Character.valueOf( c ) );
+            if( partition == null ) {
+                partition = new ArrayList<String>();
+                partitions.put( Character.valueOf( c ), partition );
+            }
+            lastPartition = partition;
+        }
+        partition.add( word );
+    }
+
+    /**
+     * Build the sub trees of all partitions on the ForkJoinPool and copy it into one tree. The layout is the same as
+     * of the sequential mode: the root node, followed by the nodes of the partitions in the order of the first
+     * character.
+     * @return the tree data
+     */
+    private char[] createParallel() {
+        final List<BuildTask> builds = new ArrayList<BuildTask>();
+        for( ArrayList<String> partition : partitions.values() ) {
+            builds.add( new BuildTask( partition ) );
+        }
+        partitions.clear();
+        lastPartition = null;
+        getPool().invoke( new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll( builds );
+            }
+        } );
+
+        // every partition has exactly one item in the root node
+        int rootSize = builds.size() * 3 + 1;
+        int treeSize = rootSize;
+        for( BuildTask build : builds ) {
+            treeSize += build.builder.size - 1;
+        }
+        final char[] result = new char[treeSize];
+        final List<CopyTask> copies = new ArrayList<CopyTask>();
+        int start = rootSize;
+        for( int i = 0; i < builds.size(); i++ ) {
+            DictionaryBuilder builder = builds.get( i ).builder;
+            System.arraycopy( builder.levels[0], 0, result, i * 3, 3 );
+            relocate( result, i * 3, i * 3 + 3, start - 1 );
+            copies.add( new CopyTask( builder, result, start ) );
+            start += builder.size - 1;
+        }
+        result[rootSize - 1] = DictionaryBase.LAST_CHAR;
+        getPool().invoke( new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll( copies );
+            }
+        } );
+        return result;
+    }
+
+    /**
+     * Build the sub tree of one partition. The nodes of the sub tree are in the tree of the builder, the item of the
+     * first character is the only item in the root level of the builder.
+     */
+    private static class BuildTask extends RecursiveAction {
+
+        private ArrayList<String> words;
+
+        private DictionaryBuilder builder;
+
+        BuildTask( ArrayList<String> words ) {
+            this.words = words;
+        }
+
+        @Override
+        protected void compute() {
+            Collections.sort( words );
+            builder = new DictionaryBuilder();
+            for( int i = 0; i < words.size(); i++ ) {
+                builder.add( words.get( i ) );
+            }
+            words = null;
+            builder.closeNodes();
+        }
+    }
+
+    /**
+     * Copy the sub tree of one partition into the result and relocate its offsets.
+     */
+    private static class CopyTask extends RecursiveAction {
+
+        private final DictionaryBuilder builder;
+
+        private final char[]            result;
+
+        private final int               start;
+
+        CopyTask( DictionaryBuilder builder, char[] result, int start ) {
+            this.builder = builder;
+            this.result = result;
+            this.start = start;
+        }
+
+        @Override
+        protected void compute() {
+            int count = builder.size - 1;
+            // the offsets in the builder start with 1 because position 0 is reserved
+            int delta = start - 1;
+            System.arraycopy( builder.tree, 1, result, start, count );
+            relocate( result, start, start + count, delta );
+        }
+    }
+
+    /**
+     * Get the character of the last item in an open node. This is the character of the last word on this position.
+     * @param level the position in the word
+     */
+    private char lastChar( int level ) {
+        return levels[level][levelSizes[level] - 3];
+    }
+
+    /**
+     * Add an item to an open node.
+     * @param level the position of the character in the word
+     * @param c the character
+     */
+    private void addItem( int level, char c ) {
+        if( level == levels.length ) {
+            char[][] tempLevels = new char[level * 2][];
+            System.arraycopy( levels, 0, tempLevels, 0, level );
+            levels = tempLevels;
+            int[] tempSizes = new int[level * 2];
+            System.arraycopy( levelSizes, 0, tempSizes, 0, level );
+            levelSizes = tempSizes;
+        }
+        char[] items = levels[level];
+        int itemsSize = levelSizes[level];
+        if( items == null ) {
+            items = levels[level] = new char[3 * 8];
+        } else if( itemsSize + 3 > items.length ) {
+            char[] temp = new char[items.length * 2];
+            System.arraycopy( items, 0, temp, 0, itemsSize );
+            items = levels[level] = temp;
+        }
+        items[itemsSize] = c;
+        items[itemsSize + 1] = 0;
+        items[itemsSize + 2] = 0;
+        levelSizes[level] = itemsSize + 3;
+    }
+
+    /**
+     * Write a complete node to the tree and set the offset in the last item of the parent node.
+     * @param level the position of the characters of the node in the word, must be larger 0
+     */
+    private void closeNode( int level ) {
+        int offset = size;
+        int itemsSize = levelSizes[level];
+        checkSize( size + itemsSize + 1 );
+        System.arraycopy( levels[level], 0, tree, size, itemsSize );
+        size += itemsSize;
+        tree[size++] = DictionaryBase.LAST_CHAR;
+        levelSizes[level] = 0;
+
+        char[] parent = levels[level - 1];
+        int idx = levelSizes[level - 1] - 3;
+        parent[idx + 1] |= (char)(offset >> 16);
+        parent[idx + 2] = (char)offset;
+    }
+
+    /**
+     * Check the size of the array and resize it if needed.
+     * @param newSize the required size
+     */
+    private void checkSize( int newSize ) {
+        if( newSize > tree.length ) {
+            char[] puffer = new char[Math.max( newSize, 2 * tree.length )];
+            System.arraycopy( tree, 0, puffer, 0, size );
+            tree = puffer;
+        }
+    }
+
+    /**
+     * Move all words to a DictionaryFactory because the words are not sorted.
+     * @param word the word that is not in order
+     */
+    private void switchToFactory( String word ) {
+        Dictionary dictionary = create();
+        factory = new DictionaryFactory();
+        Iterator<String> words = dictionary.words();
+        while( words.hasNext() ) {
+            factory.add( words.next() );
+        }
+        factory.add( word );
+    }
+
+    /**
+     * Merge two sorted word lists into one sorted word list.
+     * @param words1 the first words
+     * @param words2 the second words
+     * @return the merged words
+     */
+    static Iterator<String> merge( final Iterator<String> words1, final Iterator<String> words2 ) {
+        return new Iterator<String>() {
+            private String next1 = nextOrNull( words1 );
+            private String next2 = nextOrNull( words2 );
+
+            public boolean hasNext() {
+                return next1 != null || next2 != null;
+            }
+
+            public String next() {
+                String word;
+                if( next2 == null || (next1 != null && next1.compareTo( next2 ) <= 0) ) {
+                    if( next1 == null ) {
+                        throw new NoSuchElementException();
+                    }
+                    word = next1;
+                    next1 = nextOrNull( words1 );
+                } else {
+                    word = next2;
+                    next2 = nextOrNull( words2 );
+                }
+                return word;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Get the next non null value of an iterator.
+     * @param words the iterator
+     * @return the next value or null if there is no more
+     */
+    private static String nextOrNull( Iterator<String> words ) {
+        while( words.hasNext() ) {
+            String word = words.next();
+            if( word != null ) {
+                return word;
+            }
+        }
+        return null;
+    }
+}
@@ -90,9 +90,18 @@ class DictionaryFactory {
     /**
      * Create from the data in this factory a Dictionary object. If there 
      * are no word added then the Dictionary is empty. The Dictionary need fewer memory as the DictionaryFactory.
+     * Identical sub trees are shared.
      * @return a Dictionary object.
      */
     public Dictionary create(){
+        return new Dictionary( DictionaryMinimizer.minimize( createTree() ) );
+    }
+    
+    /**
+     * Create the tree data without minimization. Every node has exactly one parent and there are no run nodes.
+     * @return the tree data with the root node on position 0
+     */
+    char[] createTree(){
         tree = new char[10000];
         
         root.save( this );
@@ -102,7 +111,7 @@ class DictionaryFactory {
         System.arraycopy( tree, 0, temp, 0, size );
         tree = temp;
         
-        return new Dictionary(tree);
+        return tree;
     }
     
     /**
@@ -0,0 +1,314 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Arrays;
+
+/**
+ * Merge identical sub trees of a dictionary tree into a directed acyclic word graph (DAWG). In highly inflected
+ * languages many words end with the same suffixes. In a prefix tree every suffix is saved again for every stem. After
+ * the minimization every different node exist only once and the items of different parents point to the same node.
+ * <p>
+ * Two nodes are identical if they have the same characters, the same word end flags and point to identical next nodes.
+ * The nodes are processed in post order. That the next nodes of a node are already unique and the node can be compared
+ * with a simple compare of its chars. The unique nodes are hold in a hash table.
+ * <p>
+ * The format of the result is the same as of a tree. The offsets can point to shared nodes. The root node is on
+ * position 0.
+ * <p>
+ * After this the chains of nodes with only one item are compressed into run nodes. Long words end often in such
+ * chains. Every node of a chain need an item of 3 chars and a LAST_CHAR. In a run node every character of the chain
+ * need only one char and the walk reads the characters one after the other without jumping to another node. A node is
+ * only part of a run if it has no other parent. The shared nodes of the DAWG are not duplicated.
+ */
+final class DictionaryMinimizer {
+
+    private final char[] source;
+
+    private char[]       target;
+
+    private int          size;
+
+    /** open addressing hash table with the positions of the unique nodes, 0 is an empty slot */
+    private int[]        table;
+
+    private int          count;
+
+    /** a buffer for the items of the current node of every depth */
+    private char[][]     buffers = new char[16][];
+
+    private DictionaryMinimizer( char[] source ) {
+        this.source = source;
+        target = new char[Math.max( 16, source.length / 4 )];
+        table = new int[1024];
+    }
+
+    /**
+     * Create a minimized copy of a tree.
+     * @param tree the data of a dictionary with the root node on position 0
+     * @return the minimized data, can be the same array if there is nothing to minimize
+     */
+    static char[] minimize( char[] tree ) {
+        if( tree.length <= 1 ) {
+            return tree;
+        }
+        return compressRuns( new DictionaryMinimizer( tree ).minimize() );
+    }
+
+    private char[] minimize() {
+        // reserve the space of the root node, the root node is never shared
+        int rootSize = 0;
+        while( source[rootSize] != DictionaryBase.LAST_CHAR ) {
+            rootSize += 3;
+        }
+        checkSize( rootSize + 1 );
+        size = rootSize + 1;
+        int length = fillBuffer( 0, 0 );
+        System.arraycopy( buffers[0], 0, target, 0, length );
+
+        char[] result = new char[size];
+        System.arraycopy( target, 0, result, 0, size );
+        return result;
+    }
+
+    /**
+     * Copy the items of a node with the new offsets of the next nodes in the buffer of the depth. The next nodes are
+     * minimized before.
+     * @param node the position of the node in the source
+     * @param depth the depth of the node, the length of the prefix
+     * @return the count of chars in the buffer including the LAST_CHAR
+     */
+    private int fillBuffer( int node, int depth ) {
+        int length = 0;
+        for( int idx = node; source[idx] != DictionaryBase.LAST_CHAR; idx += 3 ) {
+            length += 3;
+        }
+        length++;
+        if( depth == buffers.length ) {
+            char[][] temp = new char[depth * 2][];
+            System.arraycopy( buffers, 0, temp, 0, depth );
+            buffers = temp;
+        }
+        char[] buffer = buffers[depth];
+        if( buffer == null || buffer.length < length ) {
+            buffer = buffers[depth] = new char[Math.max( length, 32 )];
+        }
+        for( int i = 0; i < length - 1; i += 3 ) {
+            int idx = node + i;
+            int offset = ((source[idx + 1] & 0x7fff) << 16) + source[idx + 2];
+            if( offset != 0 ) {
+                offset = minimizeNode( offset, depth + 1 );
+            }
+            buffer[i] = source[idx];
+            buffer[i + 1] = (char)((source[idx + 1] & 0x8000) | (offset >> 16));
+            buffer[i + 2] = (char)offset;
+        }
+        buffer[length - 1] = DictionaryBase.LAST_CHAR;
+        return length;
+    }
+
+    /**
+     * Minimize a node and all its next nodes.
+     * @param node the position of the node in the source
+     * @param depth the depth of the node
+     * @return the position of the unique node in the target
+     */
+    private int minimizeNode( int node, int depth ) {
+        int length = fillBuffer( node, depth );
+        char[] buffer = buffers[depth];
+        int hash = hash( buffer, 0, length );
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        for( int start; (start = table[slot]) != 0; slot = (slot + 1) & mask ) {
+            if( equals( start, buffer, length ) ) {
+                return start;
+            }
+        }
+
+        int start = size;
+        checkSize( size + length );
+        System.arraycopy( buffer, 0, target, start, length );
+        size += length;
+        table[slot] = start;
+        if( ++count * 2 > table.length ) {
+            rehash();
+        }
+        return start;
+    }
+
+    /**
+     * Compare a node in the target with the buffer. Because the items of both start on the same alignment a
+     * LAST_CHAR can only match on the end of both nodes.
+     */
+    private boolean equals( int start, char[] buffer, int length ) {
+        if( start + length > size ) {
+            return false;
+        }
+        for( int i = 0; i < length; i++ ) {
+            if( target[start + i] != buffer[i] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Double the size of the hash table.
+     */
+    private void rehash() {
+        int[] oldTable = table;
+        table = new int[oldTable.length * 2];
+        int mask = table.length - 1;
+        for( int start : oldTable ) {
+            if( start != 0 ) {
+                int length = 1;
+                while( target[start + length - 1] != DictionaryBase.LAST_CHAR ) {
+                    length += 3;
+                }
+                int slot = hash( target, start, length ) & mask;
+                while( table[slot] != 0 ) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = start;
+            }
+        }
+    }
+
+    /**
+     * Compress the chains of nodes with one item into run nodes. The nodes are written in pre order. That the next
+     * node of a node with one item follows directly.
+     * @param tree a tree without run nodes, the nodes must follow without gaps
+     * @return the compressed tree
+     */
+    private static char[] compressRuns( char[] tree ) {
+        int size = tree.length;
+        // count the parents of every node
+        int[] parents = new int[size];
+        for( int i = 0; i < size; ) {
+            if( tree[i] == DictionaryBase.LAST_CHAR ) {
+                i++;
+            } else {
+                parents[offset( tree, i )]++;
+                i += 3;
+            }
+        }
+
+        char[] target = new char[size];
+        int count = 0;
+        // the new position of every written node
+        int[] moved = new int[size];
+        // the stack hold the node and the position of the item in the target that need the new offset of the node
+        int[] stackNode = new int[64];
+        int[] stackItem = new int[64];
+        int depth = 0;
+        stackNode[depth] = 0;
+        stackItem[depth++] = -1;
+        while( depth > 0 ) {
+            depth--;
+            int node = stackNode[depth];
+            int item = stackItem[depth];
+            int start = moved[node];
+            if( start == 0 ) {
+                start = count;
+                moved[node] = start;
+                if( node != 0 && isLink( tree, node, parents ) ) {
+                    target[count++] = DictionaryBase.LAST_CHAR;
+                    do {
+                        target[count++] = tree[node];
+                        node = offset( tree, node );
+                    } while( isLink( tree, node, parents ) );
+                    target[count++] = DictionaryBase.LAST_CHAR;
+                }
+                int first = count;
+                for( int i = node; tree[i] != DictionaryBase.LAST_CHAR; i += 3 ) {
+                    target[count++] = tree[i];
+                    target[count++] = (char)(tree[i + 1] & 0x8000);
+                    target[count++] = 0;
+                }
+                target[count++] = DictionaryBase.LAST_CHAR;
+                // push in reverse order that the first next node is written first
+                for( int i = count - 4; i >= first; i -= 3 ) {
+                    int offset = offset( tree, node + i - first );
+                    if( offset != 0 ) {
+                        if( depth == stackNode.length ) {
+                            stackNode = Arrays.copyOf( stackNode, depth * 2 );
+                            stackItem = Arrays.copyOf( stackItem, depth * 2 );
+                        }
+                        stackNode[depth] = offset;
+                        stackItem[depth++] = i;
+                    }
+                }
+            }
+            if( item >= 0 ) {
+                target[item + 1] |= (char)(start >> 16);
+                target[item + 2] = (char)start;
+            }
+        }
+        return Arrays.copyOf( target, count );
+    }
+
+    /**
+     * Check if a node can be merged with its next node into a run. The node must have only one item without a word
+     * end. The next node must have also only one item and no other parent.
+     */
+    private static boolean isLink( char[] tree, int node, int[] parents ) {
+        if( tree[node + 3] != DictionaryBase.LAST_CHAR || (tree[node + 1] & 0x8000) != 0 ) {
+            return false;
+        }
+        int next = offset( tree, node );
+        return next != 0 && tree[next + 3] == DictionaryBase.LAST_CHAR && parents[next] == 1;
+    }
+
+    /**
+     * Read the offset of the next node of an item.
+     */
+    private static int offset( char[] tree, int idx ) {
+        return ((tree[idx + 1] & 0x7fff) << 16) + tree[idx + 2];
+    }
+
+    /**
+     * Calculate the hash of a node.
+     * @param data the buffer or the target
+     * @param start the start of the node
+     * @param length the count of chars including the LAST_CHAR
+     */
+    private static int hash( char[] data, int start, int length ) {
+        int hash = 0;
+        for( int i = start; i < start + length; i++ ) {
+            hash = 31 * hash + data[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Check the size of the target and resize it if needed.
+     * @param newSize the required size
+     */
+    private void checkSize( int newSize ) {
+        if( newSize > target.length ) {
+            char[] puffer = new char[Math.max( newSize, 2 * target.length )];
+            System.arraycopy( target, 0, puffer, 0, size );
+            target = puffer;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Arrays;
+
+/**
+ * A dictionary in the double array format (BASE/CHECK). Every item of the tree is a state. The item of the character
+ * c in the node of the state p is on the position base[p] + code(c) if check on this position is p. The search of a
+ * character needs no scan of the items of a node. The code of a character is its position in the alphabet of the
+ * dictionary.
+ * <p>
+ * Like in the tree format a node is addressed by the position of its first item. The items of a node are linked in
+ * sorted order for the iteration. The position 0 is a marker with LAST_CHAR for the end of a node. The root state is
+ * on position 1 and is not an item.
+ * <p>
+ * The double array can not share nodes. The dictionary is created from any other dictionary after loading and the
+ * shared nodes and runs are expanded. It needs about 10 times more memory as a minimized tree. Words that are added later
+ * are hold in the overlay.
+ */
+final class DoubleArrayDictionary extends DictionaryBase {
+
+    /** the state of the root node */
+    private static final int ROOT   = 1;
+
+    /** the check value of a free position, the check value of the root state is -2 */
+    private static final int FREE   = -1;
+
+    /** the count of values of a position and the offsets of the values */
+    private static final int CELL   = 4;
+
+    private static final int BASE   = 0;
+
+    private static final int CHECK  = 1;
+
+    private static final int FIRST  = 2;
+
+    private static final int NEXT   = 3;
+
+    /** the code of every character, 0 for characters that are not in the dictionary */
+    private final char[]     codes;
+
+    /**
+     * The values of every position are hold together that a transition read only a few cache lines: base, check, the
+     * first item of the next node or 0 if there is no next node and the next item in the same node or 0 for the last
+     * item.
+     */
+    private final int[]      cells;
+
+    /** the character of every item */
+    private final char[]     labels;
+
+    private final long[]     wordEnds;
+
+    /** the first item of the root node */
+    private final int        root;
+
+    /**
+     * Create a dictionary with the words of the tree of another dictionary. The overlay of the other dictionary is not
+     * copied.
+     * @param source the source dictionary
+     */
+    DoubleArrayDictionary( DictionaryBase source ) {
+        // the alphabet, the characters are numbered in the order of its first occurrence
+        codes = new char[0x10000];
+        int alphabet = 0;
+        ItemIterator iterator = new ItemIterator( source );
+        for( int idx; (idx = iterator.next()) != -1; ) {
+            char c = source.itemChar( idx );
+            if( codes[c] == 0 ) {
+                codes[c] = (char)++alphabet;
+            }
+        }
+
+        Builder builder = new Builder( Math.max( 16, source.size / 2 ), alphabet );
+        int[] items = new int[64];
+        int[] itemCodes = new int[64];
+        // pre order walk, the stack hold the source node and the state of the item with this next node
+        int[] stackNode = new int[64];
+        int[] stackState = new int[64];
+        int depth = 0;
+        stackNode[depth] = source.getRoot();
+        stackState[depth++] = ROOT;
+        builder.check[ROOT] = -2;
+        int rootItem = 0;
+        while( depth > 0 ) {
+            depth--;
+            int node = stackNode[depth];
+            int state = stackState[depth];
+            int count = 0;
+            for( int idx = source.firstItem( node ); idx != -1; idx = source.nextSibling( idx ) ) {
+                if( count == items.length ) {
+                    items = Arrays.copyOf( items, count * 2 );
+                    itemCodes = Arrays.copyOf( itemCodes, count * 2 );
+                }
+                items[count] = idx;
+                itemCodes[count++] = codes[source.itemChar( idx )];
+            }
+            if( count == 0 ) {
+                continue;
+            }
+            int b = builder.place( itemCodes, count );
+            builder.base[state] = b;
+            int previous = 0;
+            for( int i = 0; i < count; i++ ) {
+                int idx = items[i];
+                int item = b + itemCodes[i];
+                builder.check[item] = state;
+                builder.labels[item] = source.itemChar( idx );
+                if( source.isWord( idx ) ) {
+                    builder.wordEnds[item >> 6] |= 1L << item;
+                }
+                if( previous == 0 ) {
+                    if( state == ROOT ) {
+                        rootItem = item;
+                    } else {
+                        builder.firsts[state] = item;
+                    }
+                } else {
+                    builder.nexts[previous] = item;
+                }
+                previous = item;
+            }
+            // push in reverse order that the first next node is placed first
+            for( int i = count - 1; i >= 0; i-- ) {
+                int next = source.nextNode( items[i] );
+                if( next != 0 ) {
+                    if( depth == stackNode.length ) {
+                        stackNode = Arrays.copyOf( stackNode, depth * 2 );
+                        stackState = Arrays.copyOf( stackState, depth * 2 );
+                    }
+                    stackNode[depth] = next;
+                    stackState[depth++] = b + itemCodes[i];
+                }
+            }
+        }
+        // free positions after the last item that a transition never reads behind the arrays
+        int length = rootItem == 0 ? 1 : builder.length + alphabet + 1;
+        builder.ensureCapacity( length );
+        cells = new int[length * CELL];
+        for( int i = 0; i < length; i++ ) {
+            cells[i * CELL + BASE] = builder.base[i];
+            cells[i * CELL + CHECK] = builder.check[i];
+            cells[i * CELL + FIRST] = builder.firsts[i];
+            cells[i * CELL + NEXT] = builder.nexts[i];
+        }
+        labels = Arrays.copyOf( builder.labels, length );
+        wordEnds = Arrays.copyOf( builder.wordEnds, (length >> 6) + 1 );
+        root = rootItem;
+        size = length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getRoot() {
+        return root;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int searchChar( int idx, char c ) {
+        int state = cells[idx * CELL + CHECK];
+        int item = cells[state * CELL + BASE] + codes[c];
+        // the code 0 of an unknown character is never the position of an item
+        return cells[item * CELL + CHECK] == state ? item : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    char getChar( int idx ) {
+        return labels[idx];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isWordMatch( int idx ) {
+        return (wordEnds[idx >> 6] & (1L << idx)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int readIndex( int idx ) {
+        return cells[idx * CELL + FIRST];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int nextItem( int idx ) {
+        return cells[idx * CELL + NEXT];
+    }
+
+    /**
+     * Get the count of bytes of the arrays without the overlay.
+     */
+    int getMemorySize() {
+        return size * (CELL * 4 + 2) + wordEnds.length * 8 + codes.length * 2;
+    }
+
+    /**
+     * Pre order iteration over all items of a dictionary. Shared nodes are visited for every parent.
+     */
+    private static final class ItemIterator {
+
+        private final DictionaryBase dictionary;
+
+        private int[]                stack = new int[64];
+
+        private int                  depth;
+
+        ItemIterator( DictionaryBase dictionary ) {
+            this.dictionary = dictionary;
+            int first = dictionary.firstItem( dictionary.getRoot() );
+            if( first != -1 ) {
+                stack[depth++] = first;
+            }
+        }
+
+        /**
+         * Get the next item.
+         * @return the item or -1 if there are no more items
+         */
+        int next() {
+            if( depth == 0 ) {
+                return -1;
+            }
+            int idx = stack[--depth];
+            int sibling = dictionary.nextSibling( idx );
+            if( sibling != -1 ) {
+                stack[depth++] = sibling;
+            }
+            int next = dictionary.nextNode( idx );
+            if( next != 0 ) {
+                if( depth == stack.length ) {
+                    stack = Arrays.copyOf( stack, depth * 2 );
+                }
+                stack[depth++] = dictionary.firstItem( next );
+            }
+            return idx;
+        }
+    }
+
+    /**
+     * The growing arrays while placing the nodes. A free position has the check value FREE.
+     */
+    private static final class Builder {
+
+        private final int alphabet;
+
+        int[]             base;
+
+        int[]             check;
+
+        char[]            labels;
+
+        int[]             firsts;
+
+        int[]             nexts;
+
+        long[]            wordEnds;
+
+        /** the used length of the arrays */
+        int               length = ROOT + 1;
+
+        /** all positions before are used */
+        private int       firstFree = ROOT + 1;
+
+        Builder( int capacity, int alphabet ) {
+            this.alphabet = alphabet;
+            base = new int[capacity];
+            check = new int[capacity];
+            labels = new char[capacity];
+            firsts = new int[capacity];
+            nexts = new int[capacity];
+            wordEnds = new long[(capacity >> 6) + 1];
+            Arrays.fill( check, FREE );
+            check[0] = 0;
+            labels[0] = LAST_CHAR;
+        }
+
+        /**
+         * Search a base for the items of a node. All positions base + code must be free.
+         * @param itemCodes the codes of the characters in ascending order
+         * @param count the count of items
+         * @return the base
+         */
+        int place( int[] itemCodes, int count ) {
+            while( firstFree < check.length && check[firstFree] != FREE ) {
+                firstFree++;
+            }
+            int firstCode = itemCodes[0];
+            for( int pos = Math.max( firstFree, firstCode + 1 );; pos++ ) {
+                ensureCapacity( pos + alphabet + 1 );
+                if( check[pos] != FREE ) {
+                    continue;
+                }
+                int b = pos - firstCode;
+                boolean free = true;
+                for( int i = 1; i < count; i++ ) {
+                    if( check[b + itemCodes[i]] != FREE ) {
+                        free = false;
+                        break;
+                    }
+                }
+                if( free ) {
+                    for( int i = 0; i < count; i++ ) {
+                        // reserve the positions, the caller set the final values
+                        check[b + itemCodes[i]] = 0;
+                    }
+                    length = Math.max( length, b + itemCodes[count - 1] + 1 );
+                    return b;
+                }
+            }
+        }
+
+        /**
+         * Resize the arrays if needed.
+         * @param newLength the required length
+         */
+        void ensureCapacity( int newLength ) {
+            if( newLength > check.length ) {
+                int newCapacity = Math.max( newLength, check.length + (check.length >> 1) );
+                base = Arrays.copyOf( base, newCapacity );
+                int oldLength = check.length;
+                check = Arrays.copyOf( check, newCapacity );
+                Arrays.fill( check, oldLength, newCapacity, FREE );
+                labels = Arrays.copyOf( labels, newCapacity );
+                firsts = Arrays.copyOf( firsts, newCapacity );
+                nexts = Arrays.copyOf( nexts, newCapacity );
+                wordEnds = Arrays.copyOf( wordEnds, (newCapacity >> 6) + 1 );
+            }
+        }
+    }
+}
@@ -49,16 +49,46 @@ public class LanguageBundle extends ResourceBundle {
      * @param isFirstWordInSentence if the word is the first in a sentence
      * @return true, if the word is in the dictionary
      */
-    boolean existInDictionary( String word, Dictionary dictionary, SpellCheckerOptions options, boolean isFirstWordInSentence ) {
-        boolean exist = dictionary.exist( word );
-        if( !exist && !options.isCaseSensitive() ) {
-            exist = dictionary.exist( Utils.getInvertedCapitalizion( word ) );
-        } else if( !exist && (isFirstWordInSentence || options.getIgnoreCapitalization()) && Character.isUpperCase( word.charAt( 0 ) ) ) {
-            // Uppercase check on starting of sentence
-            String capitalizeWord = word.substring( 0, 1 ).toLowerCase() + word.substring( 1 );
-            exist = dictionary.exist( capitalizeWord );
+    final boolean existInDictionary( String word, DictionaryBase dictionary, SpellCheckerOptions options, boolean isFirstWordInSentence ) {
+        return existInDictionary( word, 0, word.length(), dictionary, options, isFirstWordInSentence );
+    }
+    
+    /**
+     * Check if a range of a text is a word in the current dictionary. It verify the options isCaseSensitive,
+     * getIgnoreCapitalization and the first word of sentence. No String is created for the most words. If a variant
+     * of the first letter must be checked then both variants are checked in one walk through the dictionary.
+     * @param text the text with the current word
+     * @param start the start of the word in the text
+     * @param end the end of the word in the text, exclusive, must be larger as start
+     * @param dictionary the current dictionary
+     * @param options the current options
+     * @param isFirstWordInSentence if the word is the first in a sentence
+     * @return true, if the word is in the dictionary
+     */
+    boolean existInDictionary( CharSequence text, int start, int end, DictionaryBase dictionary, SpellCheckerOptions options, boolean isFirstWordInSentence ) {
+        char first = text.charAt( start );
+        boolean caseSensitive = options.isCaseSensitive();
+        if( caseSensitive && !((isFirstWordInSentence || options.getIgnoreCapitalization()) && Character.isUpperCase( first )) ) {
+            // there is no variant of the first letter
+            return dictionary.exist( text, start, end );
+        }
+        // the inverted case if not case sensitive, else the lower case on starting of sentence
+        char variant = TextUtils.getInvertedCase( first );
+        if( variant == first ) {
+            return dictionary.exist( text, start, end );
+        }
+        if( variant != 0 ) {
+            return dictionary.exist( text, start, end, first, variant );
+        }
+        // the String methods are needed for this character
+        if( dictionary.exist( text, start, end ) ) {
+            return true;
+        }
+        String word = text.subSequence( start, end ).toString();
+        if( !caseSensitive ) {
+            return dictionary.exist( TextUtils.getInvertedCapitalizion( word ) );
         }
-        return exist;
+        return dictionary.exist( word.substring( 0, 1 ).toLowerCase() + word.substring( 1 ) );
     }
     
     @Override
@@ -29,13 +29,16 @@ package com.inet.jortho;
 public class LanguageBundle_fr extends LanguageBundle {
 
     @Override
-    boolean existInDictionary( String word, Dictionary dictionary, SpellCheckerOptions options, boolean isFirstWordInSentence ) {
-        if( super.existInDictionary( word, dictionary, options, isFirstWordInSentence ) ) {
+    boolean existInDictionary( CharSequence text, int start, int end, DictionaryBase dictionary, SpellCheckerOptions options, boolean isFirstWordInSentence ) {
+        if( super.existInDictionary( text, start, end, dictionary, options, isFirstWordInSentence ) ) {
             return true;
         }
-        int idx = word.indexOf( '\'' );
-        if( idx > 0 && idx < word.length() - 1 ) {
-            char ch = word.charAt( idx + 1 );
+        int idx = start;
+        while( idx < end && text.charAt( idx ) != '\'' ) {
+            idx++;
+        }
+        if( idx > start && idx < end - 1 ) {
+            char ch = text.charAt( idx + 1 );
             switch( ch ) {
                 case 'a':
                 case 'o':
@@ -43,10 +46,8 @@ public class LanguageBundle_fr extends LanguageBundle {
                 case 'e':
                 case 'i':
                 case 'h':
-                    String word1 = word.substring( 0, idx + 1 );
-                    String word2 = word.substring( idx + 1 );
-                    return super.existInDictionary( word1, dictionary, options, isFirstWordInSentence )
-                                    && super.existInDictionary( word2, dictionary, options, isFirstWordInSentence );
+                    return super.existInDictionary( text, start, idx + 1, dictionary, options, isFirstWordInSentence )
+                                    && super.existInDictionary( text, idx + 1, end, dictionary, options, isFirstWordInSentence );
             }
         }
 
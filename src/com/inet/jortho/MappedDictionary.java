@@ -0,0 +1,133 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * A read only dictionary that read the tree directly from a memory mapped precompiled dictionary file (*.orthobin).
+ * The tree data are not copied into the Java heap. All Java VMs on the same host that map the same file share one
+ * copy of the data in the page cache of the operating system.
+ * <p>
+ * Words that are added later, for example from the user dictionary, are hold in the overlay on the heap. The file can
+ * not be deleted or replaced on some operating systems as long as the mapping exists.
+ * @see PrecompiledDictionary
+ */
+final class MappedDictionary extends DictionaryBase {
+
+    private final CharBuffer data;
+
+    /**
+     * Map a precompiled dictionary file.
+     * @param file the file with the precompiled dictionary
+     * @throws IOException if an I/O error occurs or if the file is not a valid precompiled dictionary.
+     */
+    MappedDictionary( File file ) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile( file, "r" );
+        try {
+            FileChannel channel = raf.getChannel();
+            long fileSize = channel.size();
+            if( fileSize < PrecompiledDictionary.HEADER_SIZE ) {
+                throw new IOException( "No precompiled dictionary" );
+            }
+            MappedByteBuffer buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, fileSize );
+            size = PrecompiledDictionary.readHeader( buffer.getInt( 0 ), buffer.getInt( 4 ), buffer.getInt( 8 ) );
+            if( PrecompiledDictionary.HEADER_SIZE + 2L * size > fileSize ) {
+                throw new IOException( "Precompiled dictionary is truncated" );
+            }
+            buffer.position( PrecompiledDictionary.HEADER_SIZE );
+            buffer.limit( PrecompiledDictionary.HEADER_SIZE + 2 * size );
+            ByteBuffer slice = buffer.slice();
+            checkChecksum( slice, buffer.getInt( 12 ) );
+            data = slice.asCharBuffer();
+        } finally {
+            // the mapping is valid also after closing of the channel
+            raf.close();
+        }
+    }
+
+    /**
+     * Verify the checksum of the tree data.
+     * @param slice the tree data
+     * @param checksum the expected checksum from the header
+     * @throws IOException if the checksum is wrong
+     */
+    private static void checkChecksum( ByteBuffer slice, int checksum ) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        ByteBuffer input = slice.duplicate();
+        while( input.hasRemaining() ) {
+            int count = Math.min( chunk.length, input.remaining() );
+            input.get( chunk, 0, count );
+            crc.update( chunk, 0, count );
+        }
+        if( (int)crc.getValue() != checksum ) {
+            throw new IOException( "Checksum error in precompiled dictionary" );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int searchChar( int idx, char c ) {
+        while( idx < size && data.get( idx ) < c ) {
+            idx += 3;
+        }
+        if( idx >= size || data.get( idx ) != c ) {
+            return -1;
+        }
+        return idx;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    char getChar( int idx ) {
+        return data.get( idx );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isWordMatch( int idx ) {
+        return (data.get( idx + 1 ) & 0x8000) > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int readIndex( int idx ) {
+        return ((data.get( idx + 1 ) & 0x7fff) << 16) + data.get( idx + 2 );
+    }
+}
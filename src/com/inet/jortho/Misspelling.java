@@ -0,0 +1,107 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+/**
+ * A misspelled word that was found by a {@link TextChecker}. It describe the range of the word in the checked text.
+ */
+public final class Misspelling {
+
+    private final long    offset;
+
+    private final String  word;
+
+    private final boolean firstWordInSentence;
+
+    /**
+     * Create a misspelling.
+     * @param offset the start of the word in the text
+     * @param word the misspelled word
+     * @param firstWordInSentence true if the word is the first word of a sentence
+     */
+    Misspelling( long offset, String word, boolean firstWordInSentence ) {
+        this.offset = offset;
+        this.word = word;
+        this.firstWordInSentence = firstWordInSentence;
+    }
+
+    /**
+     * Get the start of the misspelled word in the checked text. It is a long because a stream can be larger than 2 GB.
+     * @return the offset in characters
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the count of characters of the misspelled word.
+     * @return the length
+     */
+    public int getLength() {
+        return word.length();
+    }
+
+    /**
+     * Get the misspelled word.
+     * @return the word
+     */
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * If the word is the first word of a sentence. Then a suggestion should start with an upper case letter.
+     * @return true if it is the first word
+     */
+    public boolean isFirstWordInSentence() {
+        return firstWordInSentence;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( Object obj ) {
+        if( obj instanceof Misspelling ) {
+            Misspelling other = (Misspelling)obj;
+            return offset == other.offset && firstWordInSentence == other.firstWordInSentence && word.equals( other.word );
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return (int)(offset ^ (offset >>> 32)) * 31 + word.hashCode();
+    }
+
+    /**
+     * Return the word and its offset for debugging.
+     */
+    @Override
+    public String toString() {
+        return word + '@' + offset;
+    }
+}
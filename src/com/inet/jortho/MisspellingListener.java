@@ -0,0 +1,39 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.EventListener;
+
+/**
+ * Receive the misspelled words of a streaming check with a {@link TextChecker}. The words are reported in the order
+ * of the text while the stream is read.
+ * @see TextChecker#check(java.io.Reader, java.util.Locale, SpellCheckerOptions, MisspellingListener)
+ */
+public interface MisspellingListener extends EventListener {
+
+    /**
+     * This method gets called for every misspelled word.
+     * @param misspelling the misspelled word with its offset in the stream
+     */
+    public void misspellingFound( Misspelling misspelling );
+}
@@ -0,0 +1,213 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Iterator;
+
+/**
+ * A small mutable dictionary for the words that are added at runtime, for example from the user dictionary or with
+ * "Add to dictionary". It is consulted together with the read only tree of a dictionary. The tree of the dictionary
+ * is never changed.
+ * <p>
+ * The tree has the same format as the tree of a Dictionary, but it is never minimized and has no run nodes. Every
+ * node has exactly one parent. If a node need an additional item then the node is copied with the new item to the end
+ * of the tree and the offset in the parent item is changed. The old node is not used anymore. Adding a word does never
+ * move other nodes. The cost is the length of the word plus the size of the changed nodes and not the size of the
+ * dictionary.
+ * <p>
+ * An overlay that is visible to readers is never changed. The dictionary adds words to a copy and publishes the copy
+ * after the words are added.
+ */
+final class OverlayDictionary extends DictionaryBase {
+
+    /** the position of the root node, the root node is moved like any other node */
+    private int root;
+
+    private int wordCount;
+
+    /**
+     * Create an empty overlay.
+     */
+    OverlayDictionary() {
+        tree = new char[256];
+        tree[size++] = LAST_CHAR;
+    }
+
+    /**
+     * Create a copy of an overlay that can be changed without an effect on the source.
+     * @param source the overlay to copy
+     */
+    OverlayDictionary( OverlayDictionary source ) {
+        tree = new char[source.size + 256];
+        System.arraycopy( source.tree, 0, tree, 0, source.size );
+        size = source.size;
+        root = source.root;
+        wordCount = source.wordCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getRoot() {
+        return root;
+    }
+
+    /**
+     * Add a word to the overlay. If it already exist then it has no effect. This method is not thread safe.
+     * @param word the new word.
+     */
+    @Override
+    void add( String word ) {
+        int length = word.length();
+        if( length == 0 ) {
+            return;
+        }
+        for( int i = 0; i < length; i++ ) {
+            if( word.charAt( i ) == LAST_CHAR ) {
+                throw new RuntimeException( "Invalid Character" );
+            }
+        }
+        int node = root;
+        int parent = -1;
+        for( int i = 0; i < length; i++ ) {
+            char c = word.charAt( i );
+            int idx = node;
+            while( tree[idx] < c ) {
+                idx += 3;
+            }
+            if( tree[idx] != c ) {
+                int newNode = insertItem( node, idx, c );
+                if( parent < 0 ) {
+                    root = newNode;
+                } else {
+                    writeIndex( parent, newNode );
+                }
+                idx += newNode - node;
+            }
+            if( i == length - 1 ) {
+                setWordMatch( idx );
+                return;
+            }
+            int nextIdx = readIndex( idx );
+            if( nextIdx == 0 ) {
+                // the rest of the word is a chain of new nodes with one item
+                for( i++; i < length; i++ ) {
+                    checkSize( size + 4 );
+                    nextIdx = size;
+                    tree[size++] = word.charAt( i );
+                    tree[size++] = 0;
+                    tree[size++] = 0;
+                    tree[size++] = LAST_CHAR;
+                    writeIndex( idx, nextIdx );
+                    idx = nextIdx;
+                }
+                setWordMatch( idx );
+                return;
+            }
+            parent = idx;
+            node = nextIdx;
+        }
+    }
+
+    /**
+     * Copy a node to the end of the tree and insert a new item.
+     * @param node the start of the node
+     * @param idx the position of the new item in the old node
+     * @param c the character of the new item
+     * @return the start of the new node
+     */
+    private int insertItem( int node, int idx, char c ) {
+        int end = idx;
+        while( tree[end] != LAST_CHAR ) {
+            end += 3;
+        }
+        int count = end - node + 1;
+        checkSize( size + count + 3 );
+        int newNode = size;
+        int before = idx - node;
+        System.arraycopy( tree, node, tree, newNode, before );
+        tree[newNode + before] = c;
+        tree[newNode + before + 1] = 0;
+        tree[newNode + before + 2] = 0;
+        System.arraycopy( tree, idx, tree, newNode + before + 3, count - before );
+        size += count + 3;
+        return newNode;
+    }
+
+    /**
+     * Set the offset of the next node and preserve the word end flag.
+     * @param idx the position of an item
+     * @param offset the position of the next node
+     */
+    private void writeIndex( int idx, int offset ) {
+        tree[idx + 1] = (char)((tree[idx + 1] & 0x8000) | (offset >> 16));
+        tree[idx + 2] = (char)offset;
+    }
+
+    /**
+     * Mark that a word ends on the item.
+     * @param idx the position of an item
+     */
+    private void setWordMatch( int idx ) {
+        if( (tree[idx + 1] & 0x8000) == 0 ) {
+            tree[idx + 1] |= 0x8000;
+            wordCount++;
+        }
+    }
+
+    /**
+     * Check the size of the array and resize it if needed.
+     * @param newSize the required size
+     */
+    private void checkSize( int newSize ) {
+        if( newSize > tree.length ) {
+            char[] puffer = new char[Math.max( newSize, 2 * tree.length )];
+            System.arraycopy( tree, 0, puffer, 0, size );
+            tree = puffer;
+        }
+    }
+
+    /**
+     * Get the count of words in the overlay.
+     */
+    int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Remove the unused nodes and release the memory that was reserved on adding of words. The new tree is not
+     * minimized because {@link #add(String)} change the nodes in place. A shared node or a run node would change other
+     * words.
+     */
+    void trimToSize() {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        Iterator<String> words = words();
+        while( words.hasNext() ) {
+            builder.add( words.next() );
+        }
+        tree = builder.createTree();
+        size = tree.length;
+        root = 0;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Check a large text on all processors. The text is split recursively at paragraph boundaries. Every part is checked
+ * with its own {@link TextTokenizer} against the shared dictionary. The results are merged in the order of the text.
+ * The results are identical to a check on one thread because a sentence never spans a line break.
+ */
+final class ParallelChecker {
+
+    /** the min count of characters of a part, smaller texts are checked on the current thread */
+    static final int           THRESHOLD = 0x4000;
+
+    private static ForkJoinPool pool;
+
+    private ParallelChecker() {
+        //static helper
+    }
+
+    /**
+     * Get the shared pool. The worker threads are daemon threads.
+     */
+    private static synchronized ForkJoinPool getPool() {
+        if( pool == null ) {
+            pool = new ForkJoinPool();
+        }
+        return pool;
+    }
+
+    /**
+     * Search all misspelled words in a text.
+     * @param text the text, a snapshot that is not modified while checking
+     * @param dictionary the dictionary
+     * @param locale the language of the text
+     * @param options the options, can't be null
+     * @return the misspelled words in the order of the text
+     */
+    static List<Misspelling> check( String text, DictionaryBase dictionary, Locale locale, SpellCheckerOptions options ) {
+        CheckTask task = new CheckTask( text, 0, text.length(), dictionary, locale, options );
+        if( text.length() < 2 * THRESHOLD ) {
+            return task.compute();
+        }
+        return getPool().invoke( task );
+    }
+
+    /**
+     * Check a range of the text or split it into two tasks.
+     */
+    private static class CheckTask extends RecursiveTask<List<Misspelling>> {
+
+        private final String              text;
+
+        private final int                 start, end;
+
+        private final DictionaryBase      dictionary;
+
+        private final Locale              locale;
+
+        private final SpellCheckerOptions options;
+
+        /**
+         * Create a task for a range of whole paragraphs.
+         */
+        CheckTask( String text, int start, int end, DictionaryBase dictionary, Locale locale, SpellCheckerOptions options ) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.dictionary = dictionary;
+            this.locale = locale;
+            this.options = options;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected List<Misspelling> compute() {
+            if( end - start >= 2 * THRESHOLD ) {
+                // split after the line break that follow the middle
+                int split = text.indexOf( '\n', (start + end) >>> 1 ) + 1;
+                if( split > start && split < end ) {
+                    CheckTask second = new CheckTask( text, split, end, dictionary, locale, options );
+                    second.fork();
+                    List<Misspelling> result = new CheckTask( text, start, split, dictionary, locale, options ).compute();
+                    result.addAll( second.join() );
+                    return result;
+                }
+            }
+            final ArrayList<Misspelling> result = new ArrayList<Misspelling>();
+            TextTokenizer tokenizer = new TextTokenizer( dictionary, locale, options );
+            TextChecker.checkParagraphs( tokenizer, text.substring( start, end ), start, true, new MisspellingListener() {
+                public void misspellingFound( Misspelling misspelling ) {
+                    result.add( misspelling );
+                }
+            } );
+            return result;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Read and write the precompiled binary dictionary format (*.orthobin). The file contains the final tree of a
+ * Dictionary. That it can be loaded with a single bulk read without building the tree from a word list.
+ * <p>
+ * The file layout is (big endian):
+ * <ul>
+ * <li>int: magic number "JOBI"</li>
+ * <li>int: format version, 2 if the tree can contain run nodes, version 1 can be read also</li>
+ * <li>int: count of chars in the tree</li>
+ * <li>int: CRC32 checksum of the tree data</li>
+ * <li>char[]: the tree data</li>
+ * </ul>
+ * You can create a precompiled dictionary from a word list with:
+ * <code><pre>
+ * java -cp jortho.jar com.inet.jortho.PrecompiledDictionary dictionary_de.ortho dictionary_de.orthobin
+ * </pre></code>
+ * With the option <code>-levels &lt;n&gt;</code> the nodes of the top n levels of the tree are written in breadth
+ * first order at the start of the data (see {@link BreadthFirstLayout}).
+ * @author Volker Berlin
+ */
+final class PrecompiledDictionary {
+
+    /** The file extension of a precompiled dictionary. */
+    static final String EXTENSION   = ".orthobin";
+
+    static final int    MAGIC       = 0x4A4F4249; // "JOBI"
+
+    static final int    VERSION     = 2;
+
+    /** The size of the header in bytes. The tree data start at this offset. */
+    static final int    HEADER_SIZE = 16;
+
+    /** The size of the read buffer in bytes, must be even. */
+    private static final int CHUNK_SIZE = 0x10000;
+
+    /**
+     * There is no instance needed. All methods are static.
+     */
+    private PrecompiledDictionary() {
+        /* nothing */
+    }
+
+    /**
+     * Write the tree of a dictionary in the precompiled format. The stream is not closed.
+     *
+     * @param dictionary the dictionary, words can't be added to it
+     * @param stream the target
+     * @throws IOException if an I/O error occurs.
+     * @throws IllegalArgumentException if words was added to the dictionary
+     */
+    static void save( Dictionary dictionary, OutputStream stream ) throws IOException {
+        save( dictionary, stream, 0 );
+    }
+
+    /**
+     * Write the tree of a dictionary in the precompiled format with the top levels in breadth first order. The stream
+     * is not closed.
+     *
+     * @param dictionary the dictionary, words can't be added to it
+     * @param stream the target
+     * @param levels the count of top levels in breadth first order, 0 write the tree unchanged
+     * @throws IOException if an I/O error occurs.
+     * @throws IllegalArgumentException if words was added to the dictionary
+     * @see BreadthFirstLayout#reorder(char[], int)
+     */
+    static void save( Dictionary dictionary, OutputStream stream, int levels ) throws IOException {
+        if( dictionary.getAddedWordCount() > 0 ) {
+            // the words of the overlay are not part of the tree
+            throw new IllegalArgumentException( "Dictionary with added words, use createMerged() before saving" );
+        }
+        char[] tree = dictionary.tree;
+        int size = dictionary.size;
+        if( levels > 0 ) {
+            tree = BreadthFirstLayout.reorder( Arrays.copyOf( tree, size ), levels );
+            size = tree.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate( size * 2 );
+        buffer.asCharBuffer().put( tree, 0, size );
+        byte[] data = buffer.array();
+
+        CRC32 crc = new CRC32();
+        crc.update( data );
+
+        DataOutputStream output = new DataOutputStream( stream );
+        output.writeInt( MAGIC );
+        output.writeInt( VERSION );
+        output.writeInt( size );
+        output.writeInt( (int)crc.getValue() );
+        output.write( data );
+        output.flush();
+    }
+
+    /**
+     * Load a precompiled dictionary. The stream is closed after reading. The data are read in chunks directly into the
+     * tree. Only one small buffer is needed additional to the tree.
+     *
+     * @param stream the source
+     * @return the dictionary
+     * @throws IOException if an I/O error occurs or if the data are not a valid precompiled dictionary.
+     */
+    static Dictionary load( InputStream stream ) throws IOException {
+        DataInputStream input = new DataInputStream( stream );
+        try {
+            int size = readHeader( input.readInt(), input.readInt(), input.readInt() );
+            int checksum = input.readInt();
+            char[] tree = new char[size];
+            byte[] chunk = new byte[(int)Math.min( CHUNK_SIZE, size * 2L )];
+            CharBuffer chars = ByteBuffer.wrap( chunk ).asCharBuffer();
+            CRC32 crc = new CRC32();
+            for( int pos = 0; pos < size; ) {
+                int count = Math.min( chunk.length / 2, size - pos );
+                input.readFully( chunk, 0, count * 2 );
+                crc.update( chunk, 0, count * 2 );
+                chars.clear();
+                chars.get( tree, pos, count );
+                pos += count;
+            }
+            if( (int)crc.getValue() != checksum ) {
+                throw new IOException( "Checksum error in precompiled dictionary" );
+            }
+            return new Dictionary( tree );
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Load a precompiled dictionary from an URL.
+     *
+     * @param url the location of the file
+     * @return the dictionary
+     * @throws IOException if an I/O error occurs, if the file does not exist or if it is not valid.
+     */
+    static Dictionary load( URL url ) throws IOException {
+        return load( url.openStream() );
+    }
+
+    /**
+     * Validate the header values.
+     *
+     * @param magic the magic number
+     * @param version the format version
+     * @param size the count of chars in the tree
+     * @return the size
+     * @throws IOException if the values are not valid
+     */
+    static int readHeader( int magic, int version, int size ) throws IOException {
+        if( magic != MAGIC ) {
+            throw new IOException( "No precompiled dictionary" );
+        }
+        if( version < 1 || version > VERSION ) {
+            throw new IOException( "Unsupported version of precompiled dictionary: " + version );
+        }
+        if( size < 0 ) {
+            throw new IOException( "Invalid size of precompiled dictionary: " + size );
+        }
+        return size;
+    }
+
+    /**
+     * Convert a word list (*.ortho) into a precompiled dictionary (*.orthobin).
+     *
+     * @param args optional -levels with the count of top levels in breadth first order, the word list and the output
+     *            file
+     * @throws IOException if any IO error occur
+     */
+    public static void main( String[] args ) throws IOException {
+        int levels = 0;
+        if( args.length == 4 && "-levels".equals( args[0] ) ) {
+            levels = Integer.parseInt( args[1] );
+            args = new String[] { args[2], args[3] };
+        }
+        if( args.length != 2 || levels < 0 ) {
+            System.out.println( "Convert a JOrtho word list to a precompiled dictionary." );
+            System.out.println( "  Usage:" );
+            System.out.println( "\tjava com.inet.jortho.PrecompiledDictionary [-levels <n>] <ortho file> <orthobin file>" );
+            System.out.println( "  -levels <n>: write the top n levels of the tree in breadth first order, default is 0" );
+            System.exit( 1 );
+        }
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWordList( new File( args[0] ).toURI().toURL() );
+        Dictionary dictionary = builder.create();
+        OutputStream output = new BufferedOutputStream( new FileOutputStream( args[1] ) );
+        try {
+            save( dictionary, output, levels );
+        } finally {
+            output.close();
+        }
+    }
+}
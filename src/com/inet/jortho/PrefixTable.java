@@ -0,0 +1,140 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Arrays;
+
+/**
+ * A direct mapped jump table from the first two characters of a word to the item of the second character. Every
+ * lookup of a word must scan the root node and a node of the second level. These are the widest nodes of the tree.
+ * With the table a lookup starts on the third character.
+ * <p>
+ * The slot is calculated with a hash of both characters. That it works also for non Latin scripts. A prefix is saved
+ * in its slot or in the next slot. If both are used by other prefixes then the prefix must be searched in the tree.
+ * The table has at most {@link #MAX_SLOTS} slots and needs at most 32 KB.
+ */
+final class PrefixTable {
+
+    /** the max count of slots */
+    static final int    MAX_SLOTS = 4096;
+
+    /** the result of {@link #get(char, char)} if the prefix is not in the table and must be searched in the tree */
+    static final int    UNKNOWN   = Integer.MIN_VALUE;
+
+    /** the key of an empty slot, there is no LAST_CHAR in a word */
+    private static final int EMPTY = -1;
+
+    /** both characters of the prefix of every slot */
+    private final int[] keys;
+
+    /** the position of the item of the second character of every slot */
+    private final int[] items;
+
+    private final int   shift;
+
+    /**
+     * Create a table for the prefixes.
+     * @param slots the count of slots, a power of 2
+     */
+    private PrefixTable( int slots ) {
+        keys = new int[slots];
+        items = new int[slots];
+        Arrays.fill( keys, EMPTY );
+        shift = 32 - Integer.numberOfTrailingZeros( slots );
+    }
+
+    /**
+     * Create the table for the words of the tree of a dictionary. The overlay is not included.
+     * @param dictionary the dictionary
+     * @return the table
+     */
+    static PrefixTable create( DictionaryBase dictionary ) {
+        int count = 0;
+        int root = dictionary.getRoot();
+        for( int first = dictionary.firstItem( root ); first != -1; first = dictionary.nextSibling( first ) ) {
+            int node = dictionary.nextNode( first );
+            if( node != 0 ) {
+                for( int second = dictionary.firstItem( node ); second != -1; second = dictionary.nextSibling( second ) ) {
+                    count++;
+                }
+            }
+        }
+        int slots = Math.min( MAX_SLOTS, Integer.highestOneBit( Math.max( count, 8 ) ) * 4 );
+        PrefixTable table = new PrefixTable( slots );
+        for( int first = dictionary.firstItem( root ); first != -1; first = dictionary.nextSibling( first ) ) {
+            int node = dictionary.nextNode( first );
+            if( node != 0 ) {
+                char c1 = dictionary.itemChar( first );
+                for( int second = dictionary.firstItem( node ); second != -1; second = dictionary.nextSibling( second ) ) {
+                    int key = key( c1, dictionary.itemChar( second ) );
+                    int slot = table.slot( key );
+                    if( table.keys[slot] != EMPTY ) {
+                        slot = (slot + 1) & (slots - 1);
+                    }
+                    if( table.keys[slot] == EMPTY ) {
+                        table.keys[slot] = key;
+                        table.items[slot] = second;
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Get the item of the second character of a prefix.
+     * @param c1 the first character
+     * @param c2 the second character
+     * @return the position of the item, -1 if there is no word with this prefix or {@link #UNKNOWN} if the prefix must
+     *         be searched in the tree
+     */
+    int get( char c1, char c2 ) {
+        int key = key( c1, c2 );
+        int slot = slot( key );
+        int slotKey = keys[slot];
+        if( slotKey != key && slotKey != EMPTY ) {
+            slot = (slot + 1) & (keys.length - 1);
+            slotKey = keys[slot];
+        }
+        if( slotKey == key ) {
+            return items[slot];
+        }
+        // an empty slot was never used by any prefix of the tree
+        return slotKey == EMPTY ? -1 : UNKNOWN;
+    }
+
+    /**
+     * Get the count of slots.
+     */
+    int getSlotCount() {
+        return keys.length;
+    }
+
+    private static int key( char c1, char c2 ) {
+        return (c1 << 16) | c2;
+    }
+
+    private int slot( int key ) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+}
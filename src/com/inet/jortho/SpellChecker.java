@@ -29,13 +29,17 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ItemEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseListener;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.WeakHashMap;
@@ -73,7 +77,7 @@ import javax.swing.text.JTextComponent;
 public class SpellChecker {
     
     private final static ArrayList<LanguageAction> languages = new ArrayList<LanguageAction>();
-    private static Dictionary currentDictionary;
+    private static DictionaryBase currentDictionary;
     private static Locale currentLocale;
     private static UserDictionaryProvider userDictionaryProvider;
     private static CustomDictionaryProvider customDictionaryProvider;
@@ -82,6 +86,15 @@ public class SpellChecker {
     private static final SpellCheckerOptions globalOptions = new SpellCheckerOptions();
     private static MessageHandler messageHandler = new DefaultMessageHandler( null );
     private static CustomUIProvider customUIProvider;
+    private static boolean memoryMapped;
+    private static boolean parallelBuild;
+    private static int suggestionIndexSize;
+    private static boolean arrayLayout;
+    private static boolean doubleArrayLayout;
+    private static boolean prefixTable;
+    /** the count of added words after that a dictionary is merged into a new tree */
+    static final int MERGE_THRESHOLD = 1000;
+    private static DictionaryBase mergingDictionary;
     
     /**
      * Duplicate of Action.SELECTED_KEY since 1.6
@@ -178,6 +191,181 @@ public class SpellChecker {
         return SpellChecker.customUIProvider;
     }
 
+    /**
+     * Set if precompiled dictionaries (dictionary_xx.orthobin) from the local file system should be memory mapped
+     * instead of loading into the Java heap. All Java VMs on the same host share then one copy of the dictionary in the
+     * page cache of the operating system. The default is false. This method must be called before
+     * {@link #registerDictionaries(URL, String, String)}.
+     * 
+     * @param enabled true, if precompiled dictionaries should be memory mapped
+     * @see #isMemoryMapped()
+     */
+    public static void setMemoryMapped( boolean enabled ) {
+        SpellChecker.memoryMapped = enabled;
+    }
+
+    /**
+     * Gets if precompiled dictionaries from the local file system are memory mapped.
+     * 
+     * @see #setMemoryMapped(boolean)
+     */
+    public static boolean isMemoryMapped() {
+        return SpellChecker.memoryMapped;
+    }
+
+    /**
+     * Set if the tree of a dictionary should be build with multiple threads on loading of a word list. The words are
+     * partitioned by its first character and the partitions are build on a ForkJoinPool. The result is the same as
+     * with a single thread. This need more memory while loading. The default is false.
+     * 
+     * @param enabled true, if dictionaries should be build in parallel
+     * @see #isParallelBuild()
+     */
+    public static void setParallelBuild( boolean enabled ) {
+        SpellChecker.parallelBuild = enabled;
+    }
+
+    /**
+     * Gets if the tree of a dictionary is build with multiple threads.
+     * 
+     * @see #setParallelBuild(boolean)
+     */
+    public static boolean isParallelBuild() {
+        return SpellChecker.parallelBuild;
+    }
+
+    /**
+     * Set if a loaded dictionary should be converted into a layout with separate arrays for the characters, the offsets
+     * and the word end flags. Nodes with many items like the root node are scanned 4 characters at once with the
+     * characters packed into a long instead of one character at a time. The conversion need some time and memory while loading. Memory mapped dictionaries are not
+     * converted. The default is false.
+     * 
+     * @param enabled true, if the array layout should be used
+     * @see #isArrayLayout()
+     */
+    public static void setArrayLayout( boolean enabled ) {
+        SpellChecker.arrayLayout = enabled;
+    }
+
+    /**
+     * Gets if a loaded dictionary is converted into the array layout.
+     * 
+     * @see #setArrayLayout(boolean)
+     */
+    public static boolean isArrayLayout() {
+        return SpellChecker.arrayLayout;
+    }
+
+    /**
+     * Set if a loaded dictionary should be converted into a double array (BASE/CHECK). The transition to the next
+     * character needs a constant time independent of the count of items in a node. The shared nodes of the tree are
+     * expanded and the double array needs about 10 times more memory. Memory mapped dictionaries are not
+     * converted. If enabled it is used instead of the array layout. The default is false.
+     * 
+     * @param enabled true, if the double array should be used
+     * @see #isDoubleArrayLayout()
+     * @see #setArrayLayout(boolean)
+     */
+    public static void setDoubleArrayLayout( boolean enabled ) {
+        SpellChecker.doubleArrayLayout = enabled;
+    }
+
+    /**
+     * Gets if a loaded dictionary is converted into a double array.
+     * 
+     * @see #setDoubleArrayLayout(boolean)
+     */
+    public static boolean isDoubleArrayLayout() {
+        return SpellChecker.doubleArrayLayout;
+    }
+
+    /**
+     * Convert a new dictionary into the array layout or the double array if it is enabled. The dictionary must not
+     * have added words.
+     * @param dictionary the new dictionary
+     * @return the dictionary that should be used
+     */
+    private static DictionaryBase toLayout( DictionaryBase dictionary ) {
+        if( dictionary instanceof MappedDictionary ) {
+            return dictionary;
+        }
+        if( doubleArrayLayout ) {
+            return new DoubleArrayDictionary( dictionary );
+        }
+        if( arrayLayout ) {
+            return new ArrayDictionary( dictionary );
+        }
+        return dictionary;
+    }
+
+    /**
+     * Set the max size of a precomputed delete index for the suggestions. With the index a suggestion search needs
+     * only a few hash probes for words with up to 2 edits instead of a walk through the tree. The index is created
+     * after loading of a dictionary and needs about 8 bytes per entry. The English dictionary needs about 19 million
+     * entries. If a dictionary needs more entries then it is not indexed. The default is 0, the index is disabled.
+     * 
+     * @param maxEntries the max count of entries of the index, 0 disable the index
+     * @see #getSuggestionIndexSize()
+     */
+    public static void setSuggestionIndexSize( int maxEntries ) {
+        SpellChecker.suggestionIndexSize = maxEntries;
+    }
+
+    /**
+     * Gets the max size of the delete index for the suggestions.
+     * 
+     * @see #setSuggestionIndexSize(int)
+     */
+    public static int getSuggestionIndexSize() {
+        return SpellChecker.suggestionIndexSize;
+    }
+
+    /**
+     * Set if a jump table for the first two characters of a word should be created after loading of a dictionary. The
+     * check of a word starts then on the third character without scanning the wide nodes of the first two levels. The
+     * table needs at most 32 KB. The default is false.
+     * 
+     * @param enabled true, if the jump table should be created
+     * @see #isPrefixTable()
+     */
+    public static void setPrefixTable( boolean enabled ) {
+        SpellChecker.prefixTable = enabled;
+    }
+
+    /**
+     * Gets if a jump table for the first two characters is created after loading of a dictionary.
+     * 
+     * @see #setPrefixTable(boolean)
+     */
+    public static boolean isPrefixTable() {
+        return SpellChecker.prefixTable;
+    }
+
+    /**
+     * Create the delete index for the suggestions and the jump table for the first two characters if it is enabled.
+     * @param dictionary the new dictionary
+     */
+    private static void createSuggestionIndex( DictionaryBase dictionary ) {
+        int maxEntries = suggestionIndexSize;
+        if( maxEntries > 0 ) {
+            dictionary.setSuggestionEngine( DeleteIndex.create( dictionary, maxEntries ) );
+        }
+        if( prefixTable ) {
+            dictionary.setPrefixTable( PrefixTable.create( dictionary ) );
+        }
+    }
+
+    /**
+     * Get the cache for the suggestions of misspelled words. The cache is shared by all dictionaries. Its entries are
+     * not used anymore if a word is added to the dictionary. It can be used to read the statistics or to change the
+     * max size.
+     * 
+     * @return the suggestion cache, never null
+     */
+    public static SuggestionCache getSuggestionCache() {
+        return SuggestionCache.SHARED;
+    }
+
     /**
      * Registers the available dictionaries. The dictionaries' URLs must have the form "dictionary_xx.xxxxx" and must be
      * relative to the baseURL. The available languages and extension of the dictionaries is load from a configuration file.
@@ -298,7 +486,8 @@ public class SpellChecker {
 
     /**
      * Registers the available dictionaries. The dictionaries' URLs must have the form "dictionary_xx.xxxxx" and must be
-     * relative to the baseURL. The extension can be set via parameter.
+     * relative to the baseURL. The extension can be set via parameter. If a precompiled dictionary with the name
+     * "dictionary_xx.orthobin" exists then it is loaded instead of the word list which is much faster.
      * If the dictionary of the active Locale does not exist, the first dictionary is loaded.
      * There is only one dictionary loaded in memory at a given time.
      * You can download the dictionary files from http://sourceforge.net/projects/jortho/files/Dictionaries/
@@ -475,7 +664,7 @@ public class SpellChecker {
             // only editable text component have spell checking
             return;
         }
-        Dictionary dictionary = currentDictionary;
+        DictionaryBase dictionary = currentDictionary;
         if( dictionary != null ) {
             Window parent = SwingUtilities.getWindowAncestor( text );
             SpellCheckerDialog dialog;
@@ -816,33 +1005,36 @@ public class SpellChecker {
             Thread thread = new Thread( new Runnable() {
                 public void run() {
                     try {
-                        DictionaryFactory factory = new DictionaryFactory();
+                        // a precompiled dictionary does not need to build the tree from the word list
+                        DictionaryBase dictionary = loadPrecompiled();
+                        ArrayList<String> userWords = new ArrayList<String>();
                         try {
-                            factory.loadWordList( new URL( baseURL, "dictionary_" + locale + extension ) );
+                            loadWords( userDictionaryProvider, userWords );
+                            loadWords( customDictionaryProvider, userWords );
                         } catch( Exception ex ) {
                         	SpellChecker.getMessageHandler().handleError( ex.toString(), "Error", ex );
                         }
-                         try {
-                            CustomDictionaryProvider provider = userDictionaryProvider;
-                            if( provider != null ) {
-                                Iterator<String> userWords = provider.getWords( locale );
-                                if( userWords != null ) {
-                                    factory.loadWords( userWords );
-                                }
+                        if( dictionary == null ) {
+                            // the word list is sorted, the user words are merged into it that the tree can be written in one pass
+                            Collections.sort( userWords );
+                            Iterator<String> words = userWords.iterator();
+                            try {
+                                words = DictionaryBuilder.merge( new WordIterator( new URL( baseURL, "dictionary_" + locale + extension ) ), words );
+                            } catch( Exception ex ) {
+                                SpellChecker.getMessageHandler().handleError( ex.toString(), "Error", ex );
                             }
-                            provider = customDictionaryProvider;
-                            if( provider != null ) {
-                                Iterator<String> userWords = provider.getWords( locale );
-                                if( userWords != null ) {
-                                    factory.loadWords( userWords );
-                                }
+                            DictionaryBuilder builder = new DictionaryBuilder( parallelBuild );
+                            builder.loadWords( words );
+                            dictionary = toLayout( builder.create() );
+                        } else {
+                            dictionary = toLayout( dictionary );
+                            if( userWords.size() > 0 ) {
+                                dictionary.addWords( userWords.iterator() );
                             }
-                        } catch( Exception ex ) {
-                        	SpellChecker.getMessageHandler().handleError( ex.toString(), "Error", ex );
                         }
+                        createSuggestionIndex( dictionary );
                         Locale oldLocale = locale;
-                        currentDictionary = factory.create();
-                        factory = null; // make memory faster free
+                        currentDictionary = dictionary;
                         currentLocale = locale;
                         fireLanguageChanged( oldLocale );
                     } finally {
@@ -854,6 +1046,47 @@ public class SpellChecker {
             thread.setDaemon( true );
             thread.start();
         }
+
+        /**
+         * Load the precompiled dictionary (dictionary_xx.orthobin) if available.
+         * @return the dictionary or null if there is no valid precompiled dictionary
+         */
+        private DictionaryBase loadPrecompiled() {
+            try {
+                URL url = new URL( baseURL, "dictionary_" + locale + PrecompiledDictionary.EXTENSION );
+                if( memoryMapped && "file".equals( url.getProtocol() ) ) {
+                    File file;
+                    try {
+                        file = new File( url.toURI() );
+                    } catch( URISyntaxException ex ) {
+                        file = new File( url.getPath() );
+                    }
+                    return new MappedDictionary( file );
+                }
+                return PrecompiledDictionary.load( url );
+            } catch( FileNotFoundException ex ) {
+                // there is no precompiled dictionary, the word list is used
+            } catch( Exception ex ) {
+                SpellChecker.getMessageHandler().handleException( ex );
+            }
+            return null;
+        }
+
+        /**
+         * Read the words of a user or custom dictionary.
+         * @param provider the provider of the words, can be null
+         * @param list the target for the words
+         */
+        private void loadWords( CustomDictionaryProvider provider, List<String> list ) {
+            if( provider != null ) {
+                Iterator<String> words = provider.getWords( locale );
+                if( words != null ) {
+                    while( words.hasNext() ) {
+                        list.add( words.next() );
+                    }
+                }
+            }
+        }
         
         @Override
         public boolean equals(Object obj){
@@ -881,10 +1114,49 @@ public class SpellChecker {
      * @return the current <code>Dictionary</code> or null if not set.
      * @see #registerDictionaries(URL, String, String)
      */
-    static Dictionary getCurrentDictionary() {
+    static DictionaryBase getCurrentDictionary() {
         return currentDictionary;
     }
 
+    /**
+     * Merge the words that was added to the current dictionary into a new tree if there are many added words. The new
+     * tree is build in a background thread. It replace the current dictionary if the language was not changed in the
+     * meantime. The LanguageChangeListeners are notified with an unchanged locale that they use the new dictionary.
+     * Memory mapped dictionaries are not merged. This method must be called from the event dispatch thread after adding
+     * a word.
+     */
+    static void mergeAddedWords() {
+        final DictionaryBase dictionary = currentDictionary;
+        if( dictionary == null || dictionary instanceof MappedDictionary || dictionary == mergingDictionary
+                        || dictionary.getAddedWordCount() < MERGE_THRESHOLD ) {
+            return;
+        }
+        mergingDictionary = dictionary;
+        final List<String> words = dictionary.getAddedWords();
+        Thread thread = new Thread( new Runnable() {
+            public void run() {
+                final DictionaryBase merged = toLayout( dictionary.createMerged( words ) );
+                createSuggestionIndex( merged );
+                SwingUtilities.invokeLater( new Runnable() {
+                    public void run() {
+                        mergingDictionary = null;
+                        if( currentDictionary == dictionary ) {
+                            // words that was added while merging
+                            for( String word : dictionary.getAddedWords() ) {
+                                merged.add( word );
+                            }
+                            currentDictionary = merged;
+                            fireLanguageChanged( currentLocale );
+                        }
+                    }
+                } );
+            }
+        } );
+        thread.setPriority( Thread.MIN_PRIORITY );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
     /**
      * Gets the current <code>Locale</code>. The current Locale will be set if the user selects
      * one, or when calling <ode>registerDictionaries</code>.
@@ -43,7 +43,8 @@ import javax.swing.text.*;
 class SpellCheckerDialog extends JDialog implements ActionListener {
 
     private JTextComponent jText;
-    private Dictionary dictionary;
+    private DictionaryBase dictionary;
+    private Locale locale;
     private Tokenizer tok;
     private boolean isDictionaryModify;
     private final SpellCheckerOptions options;
@@ -182,9 +183,10 @@ class SpellCheckerDialog extends JDialog implements ActionListener {
     }
     
     
-    public void show( JTextComponent jTextComponent, Dictionary dic, Locale loc ) {
+    public void show( JTextComponent jTextComponent, DictionaryBase dic, Locale loc ) {
         this.jText = jTextComponent;
         this.dictionary = dic;
+        this.locale = loc;
         change.requestFocus();
         setTitle( Utils.getResource("spelling") + ": " + loc.getDisplayLanguage() );
 
@@ -244,7 +246,7 @@ class SpellCheckerDialog extends JDialog implements ActionListener {
         word.setText( wordStr );
         notFound.setText( wordStr );
 
-        List<Suggestion> list = dictionary.searchSuggestions( wordStr );
+        List<Suggestion> list = dictionary.searchSuggestions( wordStr, options.getSuggestionsLimitDialog() );
         
         boolean needCapitalization = tok.isFirstWordInSentence() && Utils.isFirstCapitalized( wordStr );
 
@@ -286,7 +288,12 @@ class SpellCheckerDialog extends JDialog implements ActionListener {
                     provider.addWord( oldWord );
                 }
                 dictionary.add( oldWord );
-                dictionary.trimToSize();
+                DictionaryBase current = SpellChecker.getCurrentDictionary();
+                if( current != dictionary && current != null && locale.equals( SpellChecker.getCurrentLocale() ) ) {
+                    // the added words was merged into a new dictionary while this dialog is open
+                    current.add( oldWord );
+                }
+                SpellChecker.mergeAddedWords();
                 isDictionaryModify = true;
                 searchNext();
             } else if( source == editDic ) {
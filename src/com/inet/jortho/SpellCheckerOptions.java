@@ -44,6 +44,10 @@ public class SpellCheckerOptions {
 
     private boolean languageDisableVisible = false;
 
+    private boolean parallelCheck          = false;
+
+    private boolean fastTokenizer          = false;
+
     /**
      * Create SpellCheckerOptions with default values.
      */
@@ -185,4 +189,46 @@ public class SpellCheckerOptions {
     public boolean isLanguageDisableVisible() {
         return languageDisableVisible;
     }
+
+    /**
+     * Set if a complete text should be checked on all processors. A snapshot of the text is split at paragraph
+     * boundaries and the paragraphs are checked concurrently. This is used for the automatic spell checking of a
+     * complete document and by the {@link TextChecker}. The default is false.
+     * 
+     * @param parallel
+     *            the new value
+     */
+    public void setParallelCheck( boolean parallel ) {
+        parallelCheck = parallel;
+    }
+
+    /**
+     * Whether a complete text should be checked on all processors.
+     * 
+     * @return true, if the paragraphs are checked concurrently
+     */
+    public boolean isParallelCheck() {
+        return parallelCheck;
+    }
+
+    /**
+     * Set if texts in Latin, Greek, Cyrillic and Arabic script should be broken into sentences and words with a table
+     * driven scanner instead of the BreakIterator of the Java runtime. The boundaries are the same. Texts in other
+     * scripts are broken with the BreakIterator. The default is false.
+     * 
+     * @param fast
+     *            the new value
+     */
+    public void setFastTokenizer( boolean fast ) {
+        fastTokenizer = fast;
+    }
+
+    /**
+     * Whether texts in alphabetic scripts are broken with a table driven scanner.
+     * 
+     * @return true, if the fast tokenizer is used
+     */
+    public boolean isFastTokenizer() {
+        return fastTokenizer;
+    }
 }
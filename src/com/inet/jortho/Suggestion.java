@@ -24,7 +24,7 @@ package com.inet.jortho;
 
 
 /**
- * This class hold one Suggestion for another spelling. 
+ * This class hold one Suggestion for another spelling. The natural order is the dissimilarity and then the word.
  * Note: this class has a natural ordering that is inconsistent with equals.
  * @author Volker Berlin
  */
@@ -96,6 +96,7 @@ final class Suggestion implements Comparable<Suggestion>{
      * {@inheritDoc}
      */
     public int compareTo( Suggestion sugg ) {
-        return diff - sugg.diff;
+        int result = diff - sugg.diff;
+        return result != 0 ? result : word.compareTo( sugg.word );
     }
 }
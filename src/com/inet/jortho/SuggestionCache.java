@@ -0,0 +1,321 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded LRU cache for the suggestions of misspelled words. The same misspellings occur often in many documents.
+ * The key is the word, the limit of suggestions and the generation of the dictionary. Every dictionary has a unique
+ * generation that changes if a word is added. So entries of an older state of a dictionary are never returned. Such
+ * entries are removed if they are the least recently used. The cache does not hold any reference to a dictionary.
+ * <p>
+ * All methods are thread safe. The entries are distributed by the hash of the key over segments with its own lock.
+ * Threads that request different words block not each other. Every segment has its own part of the max size and its
+ * own LRU order. A small cache has only one segment. The count of segments depends on the max size. If the max size
+ * is changed then the segments are created new and the entries are moved to the new segments.
+ * @see SpellChecker#getSuggestionCache()
+ */
+public final class SuggestionCache {
+
+    /** the cache that is used from all dictionaries */
+    static final SuggestionCache SHARED = new SuggestionCache( 1000 );
+
+    /** the min count of entries per segment if there are multiple segments */
+    private static final int     MIN_SEGMENT_SIZE = 64;
+
+    private static final int     MAX_SEGMENTS     = 16;
+
+    private volatile Segment[]   segments;
+
+    private volatile int         maxSize;
+
+    private final LongAdder      hitCount         = new LongAdder();
+
+    private final LongAdder      missCount        = new LongAdder();
+
+    private final LongAdder      evictionCount    = new LongAdder();
+
+    /**
+     * Create a cache.
+     * @param maxSize the max count of entries
+     */
+    SuggestionCache( int maxSize ) {
+        setMaxSize( maxSize );
+    }
+
+    /**
+     * Get the count of segments for a max size. Every segment has at least MIN_SEGMENT_SIZE entries.
+     * @param maxSize the max count of entries
+     * @return a power of 2
+     */
+    private static int getSegmentCount( int maxSize ) {
+        int count = 1;
+        while( count < MAX_SEGMENTS && count * 2 * MIN_SEGMENT_SIZE <= maxSize ) {
+            count *= 2;
+        }
+        return count;
+    }
+
+    /**
+     * Get the segment of a key.
+     * @param segments the current segments
+     * @param key the key
+     */
+    private static Segment getSegment( Segment[] segments, Key key ) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * Get the cached suggestions.
+     * @param generation the generation of the dictionary
+     * @param word the misspelled word
+     * @param limit the max count of suggestions
+     * @return a new list or null if not in the cache
+     */
+    List<Suggestion> get( long generation, String word, int limit ) {
+        Key key = new Key( generation, word, limit );
+        Segment segment = getSegment( segments, key );
+        List<Suggestion> list;
+        synchronized( segment ) {
+            list = segment.get( key );
+        }
+        if( list == null ) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        // the cached lists are never modified
+        return new ArrayList<Suggestion>( list );
+    }
+
+    /**
+     * Add the suggestions of a word to the cache.
+     * @param generation the generation of the dictionary
+     * @param word the misspelled word
+     * @param limit the max count of suggestions
+     * @param list the suggestions, the list is copied
+     */
+    void put( long generation, String word, int limit, List<Suggestion> list ) {
+        if( maxSize > 0 ) {
+            Key key = new Key( generation, word, limit );
+            Segment segment = getSegment( segments, key );
+            List<Suggestion> copy = new ArrayList<Suggestion>( list );
+            synchronized( segment ) {
+                if( segment.maxSize > 0 ) {
+                    segment.put( key, copy );
+                }
+            }
+        }
+    }
+
+    /**
+     * Set the max count of entries. A value of 0 disable the cache. The default is 1000. If the count of segments
+     * changes then the entries are moved to new segments in the LRU order of its old segment. Every old segment keeps
+     * only its part of the new max size. That the most recently used entries of all old segments are kept.
+     * @param maxSize the new max size
+     */
+    public synchronized void setMaxSize( int maxSize ) {
+        maxSize = Math.max( 0, maxSize );
+        this.maxSize = maxSize;
+        Segment[] oldSegments = segments;
+        int count = getSegmentCount( maxSize );
+        if( oldSegments != null && oldSegments.length == count ) {
+            for( int i = 0; i < count; i++ ) {
+                Segment segment = oldSegments[i];
+                synchronized( segment ) {
+                    segment.maxSize = getSegmentSize( maxSize, count, i );
+                    Iterator<Key> keys = segment.keySet().iterator();
+                    while( segment.size() > segment.maxSize ) {
+                        keys.next();
+                        keys.remove();
+                        evictionCount.increment();
+                    }
+                }
+            }
+            return;
+        }
+        Segment[] newSegments = new Segment[count];
+        for( int i = 0; i < count; i++ ) {
+            newSegments[i] = new Segment( getSegmentSize( maxSize, count, i ) );
+        }
+        segments = newSegments;
+        if( oldSegments != null ) {
+            for( int i = 0; i < oldSegments.length; i++ ) {
+                Segment segment = oldSegments[i];
+                synchronized( segment ) {
+                    // a put of a thread that still use the old segments is ignored
+                    segment.maxSize = 0;
+                    int skip = segment.size() - getSegmentSize( maxSize, oldSegments.length, i );
+                    for( Map.Entry<Key, List<Suggestion>> entry : segment.entrySet() ) {
+                        if( skip-- > 0 ) {
+                            // the least recently used entries
+                            evictionCount.increment();
+                            continue;
+                        }
+                        Segment target = getSegment( newSegments, entry.getKey() );
+                        synchronized( target ) {
+                            target.put( entry.getKey(), entry.getValue() );
+                        }
+                    }
+                    segment.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the part of the max size of a segment.
+     * @param maxSize the max count of entries of the cache
+     * @param count the count of segments
+     * @param i the index of the segment
+     */
+    private static int getSegmentSize( int maxSize, int count, int i ) {
+        return maxSize / count + (i < maxSize % count ? 1 : 0);
+    }
+
+    /**
+     * Get the max count of entries.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the current count of entries.
+     */
+    public int getSize() {
+        int size = 0;
+        for( Segment segment : segments ) {
+            synchronized( segment ) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Get the count of requests that was found in the cache.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the count of requests that was not found in the cache.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get the ratio of hits to all requests.
+     * @return a value between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+        return requests == 0 ? 0 : (double)hits / requests;
+    }
+
+    /**
+     * Get the count of entries that was removed because the cache was full.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Remove all entries and reset the statistics.
+     */
+    public void clear() {
+        for( Segment segment : segments ) {
+            synchronized( segment ) {
+                segment.clear();
+            }
+        }
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    /**
+     * A part of the cache with its own lock and LRU order.
+     */
+    private final class Segment extends LinkedHashMap<Key, List<Suggestion>> {
+
+        private int maxSize;
+
+        Segment( int maxSize ) {
+            super( 16, 0.75f, true );
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry( Map.Entry<Key, List<Suggestion>> eldest ) {
+            if( size() > maxSize ) {
+                evictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The key of a cache entry.
+     */
+    private static final class Key {
+
+        private final long   generation;
+
+        private final String word;
+
+        private final int    limit;
+
+        Key( long generation, String word, int limit ) {
+            this.generation = generation;
+            this.word = word;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            if( obj instanceof Key ) {
+                Key key = (Key)obj;
+                return generation == key.generation && limit == key.limit && word.equals( key.word );
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return word.hashCode() * 31 + (int)generation * 17 + limit;
+        }
+    }
+}
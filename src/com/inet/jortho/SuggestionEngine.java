@@ -0,0 +1,42 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+/**
+ * A search for similar words of a misspelled word. The default search walks the tree of the dictionary. An engine can
+ * replace this walk with another data structure, for example with a {@link DeleteIndex}. The words of the overlay of a
+ * dictionary are ever searched with the tree walk.
+ * <p>
+ * An engine must be thread safe.
+ * @see DictionaryBase#setSuggestionEngine(SuggestionEngine)
+ */
+interface SuggestionEngine {
+
+    /**
+     * Search similar words and add it to the container. Words with a larger dissimilarity as
+     * {@link Suggestions#getMaxDissimilarity()} are ignored by the container.
+     * @param list Container for found words
+     * @param word the misspelled word, can not be empty
+     */
+    void search( Suggestions list, String word );
+}
@@ -0,0 +1,388 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+/**
+ * The search for similar words in the tree of a dictionary. For every rule there are a different difference. The
+ * smaller the difference that so similarer.
+ * <p>
+ * The rules edit one char buffer in place and undo the change after the sub search. The walk through the tree use an
+ * explicit stack instead of recursion. The found words are hold as chars in the Suggestions container. That no objects
+ * are created while searching. An instance is reused for multiple searches of the same thread but it is not thread
+ * safe.
+ */
+final class SuggestionSearch {
+
+    private static final ThreadLocal<SuggestionSearch> INSTANCES = new ThreadLocal<SuggestionSearch>();
+
+    // the states of a stack frame
+    /** search the correct letter */
+    private static final int                         CORRECT      = 0;
+
+    /** transposed letters */
+    private static final int                         TRANSPOSED   = 1;
+
+    /** additional character in the misspelled word */
+    private static final int                         ADDITIONAL   = 2;
+
+    /** missing letters, one character is inserted */
+    private static final int                         MISSING      = 3;
+
+    /** typos, one character is replaced with any character */
+    private static final int                         WRONG        = 4;
+
+    /** a frame of the longer words, one character is appended for every item of the node */
+    private static final int                         LONGER       = 5;
+
+    // the changes of the buffer that must be undone if a frame is finished
+    private static final int                         UNDO_NONE    = 0;
+
+    private static final int                         UNDO_SWAP    = 1;
+
+    private static final int                         UNDO_INSERT  = 2;
+
+    private static final int                         UNDO_REMOVE  = 3;
+
+    private static final int                         UNDO_SET     = 4;
+
+    private static final int                         UNDO_APPEND  = 5;
+
+    /** the value of frameIdx if the iteration over the items of the node was not started */
+    private static final int                         NOT_STARTED  = Integer.MIN_VALUE;
+
+    private char[]                                   buffer       = new char[32];
+
+    private int                                      length;
+
+    // the stack frames
+    private int[]                                    framePos     = new int[32];
+
+    private int[]                                    frameLastIdx = new int[32];
+
+    private int[]                                    frameDiff    = new int[32];
+
+    private int[]                                    frameState   = new int[32];
+
+    private int[]                                    frameIdx     = new int[32];
+
+    private char[]                                   frameChar    = new char[32];
+
+    private int[]                                    frameUndo    = new int[32];
+
+    private int[]                                    frameUndoPos = new int[32];
+
+    private char[]                                   frameUndoChar = new char[32];
+
+    private int                                      depth;
+
+    /**
+     * Get the instance of the current thread.
+     */
+    static SuggestionSearch get() {
+        SuggestionSearch search = INSTANCES.get();
+        if( search == null ) {
+            search = new SuggestionSearch();
+            INSTANCES.set( search );
+        }
+        return search;
+    }
+
+    /**
+     * Search for similar words in the tree of a dictionary.
+     * @param dictionary the dictionary
+     * @param list Container for found words
+     * @param word the misspelled word, can not be empty
+     * @param root the position of the root node in the tree
+     */
+    void search( DictionaryBase dictionary, Suggestions list, String word, int root ) {
+        length = 0;
+        ensureBuffer( word.length() );
+        length = word.length();
+        word.getChars( 0, length, buffer, 0 );
+        depth = 0;
+        push( 0, root, 0, CORRECT, UNDO_NONE, 0, (char)0 );
+        run( dictionary, list );
+    }
+
+    /**
+     * Process the stack until it is empty.
+     */
+    private void run( DictionaryBase dictionary, Suggestions list ) {
+        while( depth > 0 ) {
+            int f = depth - 1;
+            int pos = framePos[f];
+            int lastIdx = frameLastIdx[f];
+            int diff = frameDiff[f];
+            switch( frameState[f] ) {
+                case CORRECT: {
+                    if( diff > list.getMaxDissimilarity() ) {
+                        pop();
+                        continue;
+                    }
+                    // First with the correct letters to go on
+                    frameState[f] = TRANSPOSED;
+                    frameChar[f] = buffer[pos];
+                    int idx = dictionary.searchItem( lastIdx, buffer[pos] );
+                    if( idx != -1 ) {
+                        if( dictionary.isWord( idx ) ) {
+                            if( pos + 1 == length ) {
+                                // exact match at this character position
+                                list.add( buffer, length, diff );
+                            } else {
+                                // a shorter match, we need to cut the string
+                                list.add( buffer, pos + 1, diff + (length - pos - 1) * 5 );
+                            }
+                        }
+                        idx = dictionary.nextNode( idx );
+                        if( idx != 0 && diff + (pos + 1 == length ? 5 : 0) <= list.getMaxDissimilarity() ) {
+                            // more characters in the tree
+                            if( pos + 1 == length ) {
+                                push( pos, idx, diff + 5, LONGER, UNDO_NONE, 0, (char)0 );
+                            } else {
+                                push( pos + 1, idx, diff, CORRECT, UNDO_NONE, 0, (char)0 );
+                            }
+                        }
+                    }
+                    continue;
+                }
+                case TRANSPOSED: {
+                    frameState[f] = MISSING;
+                    if( pos + 1 < length ) {
+                        char currentChar = buffer[pos + 1];
+                        frameChar[f] = currentChar;
+                        int idx = dictionary.searchItem( lastIdx, currentChar );
+                        if( idx != -1 ) {
+                            frameState[f] = ADDITIONAL;
+                            //transposed letters (German - Buchstabendreher)
+                            int nextIdx = dictionary.nextNode( idx );
+                            if( nextIdx != 0 && diff + 3 <= list.getMaxDissimilarity() ) {
+                                buffer[pos + 1] = buffer[pos];
+                                buffer[pos] = currentChar;
+                                push( pos + 1, nextIdx, diff + 3, CORRECT, UNDO_SWAP, pos, (char)0 );
+                            }
+                        }
+                    }
+                    continue;
+                }
+                case ADDITIONAL: {
+                    // Additional character in the misspelled word
+                    frameState[f] = MISSING;
+                    if( diff + 5 > list.getMaxDissimilarity() ) {
+                        continue;
+                    }
+                    char removed = buffer[pos];
+                    System.arraycopy( buffer, pos + 1, buffer, pos, length - pos - 1 );
+                    length--;
+                    push( pos, lastIdx, diff + 5, CORRECT, UNDO_INSERT, pos, removed );
+                    continue;
+                }
+                case MISSING: {
+                    // Missing letters, we need to add one character
+                    int idx = frameIdx[f];
+                    if( idx == NOT_STARTED ) {
+                        idx = dictionary.firstItem( lastIdx );
+                    }
+                    char currentChar = frameChar[f];
+                    boolean pushed = false;
+                    if( diff + 5 > list.getMaxDissimilarity() ) {
+                        // all sub searches would be cut
+                        idx = -1;
+                    }
+                    for( ; idx != -1; idx = dictionary.nextSibling( idx ) ) {
+                        char newChar = dictionary.itemChar( idx );
+                        int nextIdx = dictionary.nextNode( idx );
+                        if( nextIdx != 0 && newChar != currentChar ) {
+                            frameIdx[f] = dictionary.nextSibling( idx );
+                            ensureBuffer( length + 1 );
+                            System.arraycopy( buffer, pos, buffer, pos + 1, length - pos );
+                            buffer[pos] = newChar;
+                            length++;
+                            push( pos + 1, nextIdx, diff + 5, CORRECT, UNDO_REMOVE, pos, (char)0 );
+                            pushed = true;
+                            break;
+                        }
+                    }
+                    if( !pushed ) {
+                        frameState[f] = WRONG;
+                        frameIdx[f] = NOT_STARTED;
+                    }
+                    continue;
+                }
+                case WRONG: {
+                    // Typos - wrong letters (One character is replaced with any character)
+                    int idx = frameIdx[f];
+                    if( idx == NOT_STARTED ) {
+                        idx = dictionary.firstItem( lastIdx );
+                    }
+                    char currentChar = buffer[pos];
+                    boolean pushed = false;
+                    for( ; idx != -1; idx = dictionary.nextSibling( idx ) ) {
+                        char newChar = dictionary.itemChar( idx );
+                        if( dictionary.isWord( idx ) ) {
+                            buffer[pos] = newChar;
+                            list.add( buffer, pos + 1, diff + 5 + (length - pos - 1) * 5 );
+                            buffer[pos] = currentChar;
+                        }
+                        if( pos + 1 < length ) {
+                            int nextIdx = dictionary.nextNode( idx );
+                            if( nextIdx != 0 && newChar != currentChar ) {
+                                int newDiff = diff + charDiff( currentChar, newChar );
+                                if( newDiff > list.getMaxDissimilarity() ) {
+                                    continue;
+                                }
+                                frameIdx[f] = dictionary.nextSibling( idx );
+                                buffer[pos] = newChar;
+                                push( pos + 1, nextIdx, newDiff, CORRECT, UNDO_SET, pos, currentChar );
+                                pushed = true;
+                                break;
+                            }
+                        }
+                    }
+                    if( !pushed ) {
+                        pop();
+                    }
+                    continue;
+                }
+                case LONGER: {
+                    int idx = frameIdx[f];
+                    if( idx == NOT_STARTED ) {
+                        idx = dictionary.firstItem( lastIdx );
+                    }
+                    if( idx != -1 ) {
+                        frameIdx[f] = dictionary.nextSibling( idx );
+                        ensureBuffer( length + 1 );
+                        buffer[length++] = dictionary.itemChar( idx );
+                        push( length - 1, idx, diff, CORRECT, UNDO_APPEND, 0, (char)0 );
+                    } else {
+                        pop();
+                    }
+                    continue;
+                }
+            }
+        }
+    }
+
+    /**
+     * Push a new stack frame.
+     */
+    private void push( int pos, int lastIdx, int diff, int state, int undo, int undoPos, char undoChar ) {
+        if( depth == framePos.length ) {
+            int newLength = depth * 2;
+            framePos = grow( framePos, newLength );
+            frameLastIdx = grow( frameLastIdx, newLength );
+            frameDiff = grow( frameDiff, newLength );
+            frameState = grow( frameState, newLength );
+            frameIdx = grow( frameIdx, newLength );
+            frameUndo = grow( frameUndo, newLength );
+            frameUndoPos = grow( frameUndoPos, newLength );
+            char[] temp = new char[newLength];
+            System.arraycopy( frameChar, 0, temp, 0, depth );
+            frameChar = temp;
+            temp = new char[newLength];
+            System.arraycopy( frameUndoChar, 0, temp, 0, depth );
+            frameUndoChar = temp;
+        }
+        framePos[depth] = pos;
+        frameLastIdx[depth] = lastIdx;
+        frameDiff[depth] = diff;
+        frameState[depth] = state;
+        frameIdx[depth] = NOT_STARTED;
+        frameUndo[depth] = undo;
+        frameUndoPos[depth] = undoPos;
+        frameUndoChar[depth] = undoChar;
+        depth++;
+    }
+
+    /**
+     * Remove the top stack frame and undo its change of the buffer.
+     */
+    private void pop() {
+        depth--;
+        int pos = frameUndoPos[depth];
+        switch( frameUndo[depth] ) {
+            case UNDO_SWAP:
+                char c = buffer[pos];
+                buffer[pos] = buffer[pos + 1];
+                buffer[pos + 1] = c;
+                break;
+            case UNDO_INSERT:
+                System.arraycopy( buffer, pos, buffer, pos + 1, length - pos );
+                buffer[pos] = frameUndoChar[depth];
+                length++;
+                break;
+            case UNDO_REMOVE:
+                length--;
+                System.arraycopy( buffer, pos + 1, buffer, pos, length - pos );
+                break;
+            case UNDO_SET:
+                buffer[pos] = frameUndoChar[depth];
+                break;
+            case UNDO_APPEND:
+                length--;
+                break;
+        }
+    }
+
+    /**
+     * Check the size of the buffer and resize it if needed.
+     * @param newLength the required length
+     */
+    private void ensureBuffer( int newLength ) {
+        if( newLength > buffer.length ) {
+            char[] temp = new char[Math.max( newLength, 2 * buffer.length )];
+            System.arraycopy( buffer, 0, temp, 0, length );
+            buffer = temp;
+        }
+    }
+
+    /**
+     * Copy an array to a larger array.
+     */
+    private int[] grow( int[] array, int newLength ) {
+        int[] temp = new int[newLength];
+        System.arraycopy( array, 0, temp, 0, depth );
+        return temp;
+    }
+
+    /**
+     * Returns an int that describe the dissimilarity of the characters.
+     * The value is ever larger 0. A value of means only a small difference.
+     * @param a first char
+     * @param b second char
+     * @return the dissimilarity
+     */
+    static int charDiff( char a, char b ) {
+        a = Character.toLowerCase( a );
+        b = Character.toLowerCase( b );
+
+        if( a == b ) {
+            return 1;
+        }
+
+        if( Character.getType( a ) != Character.getType( b ) ) {
+            return 6;
+        }
+
+        return 5;
+    }
+}
@@ -24,54 +24,290 @@ package com.inet.jortho;
 
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 
 /**
  * A hash list of Suggestions. The list is cut with a max dissimilarity. If a suggestion already exist then the
  * suggestion with the lower dissimilarity will be hold.
+ * <p>
+ * The words are hold as chars in one pool. The Suggestion objects and Strings are only created for the entries of the
+ * final list.
+ * <p>
+ * If the count of suggestions is limited then the count of words for every dissimilarity is hold like in a bucket
+ * queue. If there are enough words with a smaller dissimilarity then the max dissimilarity is reduced to the
+ * dissimilarity of the last word that can be part of the result. The search can then skip all branches with a larger
+ * dissimilarity.
  * 
  * @author Volker Berlin
  */
 class Suggestions {
 
-    private final int maxDiff;
-    private final HashMap<Suggestion,Suggestion> map = new HashMap<Suggestion,Suggestion>();
+    /** the current max dissimilarity, it is reduced if there is a limit */
+    private int maxDiff;
+
+    /** the max count of suggestions in the result */
+    private final int limit;
+
+    /** the count of words for every dissimilarity, null if there is no limit */
+    private final int[] diffCounts;
+
+    /** the chars of all words */
+    private char[] pool = new char[256];
+    private int poolSize;
+
+    // the entries
+    private int[] starts = new int[16];
+    private int[] lengths = new int[16];
+    private int[] diffs = new int[16];
+    private int[] hashes = new int[16];
+    private int count;
+
+    /** open addressing hash table with the entry index + 1, 0 is an empty slot */
+    private int[] table = new int[32];
 
     /**
      * Create a suggestions list. Suggestion with a larger dissimilarity can not be added.
      * @param maxDiff the max dissimilarity
      */
     Suggestions(int maxDiff){
+        this( maxDiff, Integer.MAX_VALUE );
+    }
+    
+    /**
+     * Create a suggestions list with a limit.
+     * @param maxDiff the max dissimilarity
+     * @param limit the max count of suggestions in the result
+     */
+    Suggestions( int maxDiff, int limit ){
         this.maxDiff = maxDiff;
+        this.limit = limit;
+        diffCounts = limit < Integer.MAX_VALUE ? new int[maxDiff + 1] : null;
     }
     
     /**
-     * Add a suggestion. 
-     * @param suggestion the suggestion 
+     * Add a suggestion. The chars are copied if the word is new.
+     * @param chars the buffer with the word
+     * @param length the length of the word in the buffer
+     * @param diff the dissimilarity
      */
-    void add(Suggestion suggestion){
-        if(suggestion.getDissimilarity() > maxDiff){
+    void add( char[] chars, int length, int diff ){
+        add( chars, 0, length, diff );
+    }
+    
+    /**
+     * Add a suggestion. The chars are copied if the word is new.
+     * @param chars the buffer with the word
+     * @param start the start of the word in the buffer
+     * @param length the length of the word in the buffer
+     * @param diff the dissimilarity
+     */
+    void add( char[] chars, int start, int length, int diff ){
+        if(diff > maxDiff){
             return;
         }
-        Suggestion oldSuggestion = map.get( suggestion );
-        if(oldSuggestion != null && oldSuggestion.getDissimilarity() <= suggestion.getDissimilarity()){
-            return;
+        int hash = 0;
+        for( int i = 0; i < length; i++ ) {
+            hash = 31 * hash + chars[start + i];
+        }
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while( true ) {
+            int entry = table[slot] - 1;
+            if( entry < 0 ) {
+                break;
+            }
+            if( hashes[entry] == hash && equals( entry, chars, start, length ) ) {
+                int oldDiff = diffs[entry];
+                if( diff < oldDiff ) {
+                    diffs[entry] = diff;
+                    if( diffCounts != null ) {
+                        diffCounts[oldDiff]--;
+                        diffCounts[diff]++;
+                        reduceMaxDissimilarity();
+                    }
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // new entry
+        if( count == starts.length ) {
+            int newLength = count * 2;
+            starts = grow( starts, newLength );
+            lengths = grow( lengths, newLength );
+            diffs = grow( diffs, newLength );
+            hashes = grow( hashes, newLength );
+        }
+        if( poolSize + length > pool.length ) {
+            char[] temp = new char[Math.max( poolSize + length, pool.length * 2 )];
+            System.arraycopy( pool, 0, temp, 0, poolSize );
+            pool = temp;
+        }
+        System.arraycopy( chars, start, pool, poolSize, length );
+        starts[count] = poolSize;
+        lengths[count] = length;
+        diffs[count] = diff;
+        hashes[count] = hash;
+        poolSize += length;
+        table[slot] = ++count;
+        if( count * 2 > table.length ) {
+            rehash();
+        }
+        if( diffCounts != null ) {
+            diffCounts[diff]++;
+            reduceMaxDissimilarity();
         }
-        map.put( suggestion, suggestion );
     }
     
+    /**
+     * Set the max dissimilarity to the smallest value that the count of words with this or a smaller dissimilarity
+     * reach the limit.
+     */
+    private void reduceMaxDissimilarity() {
+        int sum = 0;
+        for( int d = 0; d < maxDiff; d++ ) {
+            sum += diffCounts[d];
+            if( sum >= limit ) {
+                maxDiff = d;
+                return;
+            }
+        }
+    }
     
+    /**
+     * Compare an entry with a word.
+     */
+    private boolean equals( int entry, char[] chars, int start, int length ) {
+        if( lengths[entry] != length ) {
+            return false;
+        }
+        int poolStart = starts[entry];
+        for( int i = 0; i < length; i++ ) {
+            if( pool[poolStart + i] != chars[start + i] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Double the size of the hash table.
+     */
+    private void rehash() {
+        table = new int[table.length * 2];
+        int mask = table.length - 1;
+        for( int entry = 0; entry < count; entry++ ) {
+            int slot = hashes[entry] & mask;
+            while( table[slot] != 0 ) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+    }
+    
+    /**
+     * Copy an array to a larger array.
+     */
+    private int[] grow( int[] array, int newLength ) {
+        int[] temp = new int[newLength];
+        System.arraycopy( array, 0, temp, 0, count );
+        return temp;
+    }
+    
+    /**
+     * Get the sorted suggestions. The list is cut at the limit. The entries of the result are selected before the
+     * Strings are created.
+     * @return a new list
+     */
     List<Suggestion> getlist(){
-        ArrayList<Suggestion> list = new ArrayList<Suggestion>();
-        for(Suggestion sugg : map.values()){
-            list.add( sugg );
+        int[] entries = new int[count];
+        int size = 0;
+        for( int entry = 0; entry < count; entry++ ) {
+            if( diffs[entry] <= maxDiff ) {
+                entries[size++] = entry;
+            }
+        }
+        if( size > limit ) {
+            size = selectTop( entries, size );
         }
+        ArrayList<Suggestion> list = new ArrayList<Suggestion>( size );
+        for( int i = 0; i < size; i++ ) {
+            int entry = entries[i];
+            list.add( new Suggestion( new String( pool, starts[entry], lengths[entry] ), diffs[entry] ) );
+        }
+        Collections.sort( list );
         return list;
     }
 
     /**
-     * Get the max dissimilarity. Suggestion with a larger value can not be added.
-     * @return
+     * Move the entries of the result to the begin of the array. All entries with a smaller dissimilarity as the
+     * dissimilarity of the last result are part of the result. Of the entries with this dissimilarity the smallest words
+     * are taken like in the natural order of {@link Suggestion}.
+     * @param entries the entries that can be part of the result
+     * @param size the count of entries, larger as the limit
+     * @return the count of entries in the result, equals to the limit
+     */
+    private int selectTop( int[] entries, int size ) {
+        int[] counts = new int[maxDiff + 1];
+        for( int i = 0; i < size; i++ ) {
+            counts[diffs[entries[i]]]++;
+        }
+        int lastDiff = 0;
+        int smaller = 0;
+        while( smaller + counts[lastDiff] < limit ) {
+            smaller += counts[lastDiff++];
+        }
+
+        // the smallest words with the last dissimilarity in sorted order
+        int needed = limit - smaller;
+        int[] last = new int[needed];
+        int lastCount = 0;
+        int result = 0;
+        for( int i = 0; i < size; i++ ) {
+            int entry = entries[i];
+            int diff = diffs[entry];
+            if( diff < lastDiff ) {
+                entries[result++] = entry;
+            } else if( diff == lastDiff ) {
+                int pos = lastCount;
+                while( pos > 0 && compare( entry, last[pos - 1] ) < 0 ) {
+                    pos--;
+                }
+                if( pos < needed ) {
+                    System.arraycopy( last, pos, last, pos + 1, Math.min( lastCount, needed - 1 ) - pos );
+                    last[pos] = entry;
+                    if( lastCount < needed ) {
+                        lastCount++;
+                    }
+                }
+            }
+        }
+        System.arraycopy( last, 0, entries, result, lastCount );
+        return result + lastCount;
+    }
+
+    /**
+     * Compare the words of two entries like {@link String#compareTo(String)}.
+     */
+    private int compare( int entry1, int entry2 ) {
+        int start1 = starts[entry1];
+        int start2 = starts[entry2];
+        int length = Math.min( lengths[entry1], lengths[entry2] );
+        for( int i = 0; i < length; i++ ) {
+            char c1 = pool[start1 + i];
+            char c2 = pool[start2 + i];
+            if( c1 != c2 ) {
+                return c1 - c2;
+            }
+        }
+        return lengths[entry1] - lengths[entry2];
+    }
+
+    /**
+     * Get the max dissimilarity. Suggestion with a larger value can not be added. The value can be reduced while adding
+     * if there is a limit.
+     * @return the current max dissimilarity
      */
     int getMaxDissimilarity() {
         return maxDiff;
@@ -0,0 +1,624 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.text.BreakIterator;
+import java.text.CharacterIterator;
+import java.text.StringCharacterIterator;
+import java.util.Arrays;
+
+/**
+ * A word and sentence breaker for alphabetic scripts that scans the text with a precomputed table of character
+ * classes. It finds the same boundaries as the rules of {@link BreakIterator#getWordInstance()} and
+ * {@link BreakIterator#getSentenceInstance()} of the Java runtime, but all boundaries are found in one pass in
+ * {@link #setText(String)}.
+ * <p>
+ * Only the characters of the table are supported. This are the Latin, Greek, Cyrillic and Arabic scripts, the
+ * general punctuation and the currency symbols. A text with other characters, with format characters or with a
+ * combining mark that does not follow a letter or digit must be broken with the Java BreakIterator, see
+ * {@link #isSupported()}. The sentence rules of the Java runtime have some unexpected results for a period that is
+ * followed by punctuation or by a quote. Such texts are also not supported.
+ * <p>
+ * The word breaker saves for every word if it include a lowercase letter or a digit. This answer
+ * {@link TextUtils#isAllCapitalized(CharSequence, int, int)} and {@link TextUtils#isIncludeNumbers(CharSequence, int, int)}
+ * without scanning the word again.
+ */
+final class TableBreakIterator extends BreakIterator {
+
+    /** a letter or spacing mark, can be part of a word */
+    private static final int   LETTER      = 0x1;
+
+    /** a letter, [:L:] */
+    private static final int   ALPHA       = 0x2;
+
+    /** a lowercase letter, [:Ll:] */
+    private static final int   LOWER       = 0x4;
+
+    /** a letter that is not uppercase, for isAllCapitalized */
+    private static final int   NOT_UPPER   = 0x8;
+
+    /** a decimal digit, for isIncludeNumbers */
+    private static final int   DIGIT       = 0x10;
+
+    /** any number, [:N:], can be part of a number */
+    private static final int   NUMBER      = 0x20;
+
+    /** a non spacing or enclosing mark */
+    private static final int   MARK        = 0x40;
+
+    private static final int   MID_WORD    = 0x80;
+
+    private static final int   MID_NUM     = 0x100;
+
+    private static final int   PRE_NUM     = 0x200;
+
+    private static final int   POST_NUM    = 0x400;
+
+    /** a space separator or tab, whitespace of the word breaker */
+    private static final int   WHITE       = 0x800;
+
+    /** a line separator of the word breaker */
+    private static final int   LINE        = 0x1000;
+
+    private static final int   CR          = 0x2000;
+
+    /** whitespace of the sentence breaker */
+    private static final int   SPACE       = 0x4000;
+
+    private static final int   START_PUNCT = 0x8000;
+
+    private static final int   END_PUNCT   = 0x10000;
+
+    /** a character that terminate a sentence */
+    private static final int   TERM        = 0x20000;
+
+    private static final int   PERIOD      = 0x40000;
+
+    /** a character that can start a sentence before a letter */
+    private static final int   SENT_START  = 0x80000;
+
+    private static final int   SUPPORTED   = 0x100000;
+
+    /** the classes of the characters 0 to 0x20FF */
+    private static final int[] CLASSES     = new int[0x2100];
+
+    static {
+        for( char ch = 0; ch < CLASSES.length; ch++ ) {
+            if( (ch >= 0x0700 && ch < 0x1E00) || (ch >= 0x2070 && ch < 0x20A0) ) {
+                // other scripts, super and subscripts
+                continue;
+            }
+            CLASSES[ch] = classify( ch );
+        }
+    }
+
+    private final boolean      sentence;
+
+    private String             text;
+
+    private int[]              boundaries  = new int[16];
+
+    /** the flags NOT_UPPER and DIGIT of every word */
+    private int[]              flags;
+
+    private int                count;
+
+    private int                current;
+
+    private boolean            supported;
+
+    /**
+     * Create a breaker without text.
+     * @param sentence true for sentences, false for words
+     */
+    TableBreakIterator( boolean sentence ) {
+        this.sentence = sentence;
+        if( !sentence ) {
+            flags = new int[16];
+        }
+        setText( "" );
+    }
+
+    /**
+     * Calculate the class of a character from its Unicode category like the rules of the Java BreakIterator.
+     */
+    private static int classify( char ch ) {
+        int cls;
+        int type = Character.getType( ch );
+        switch( type ) {
+            case Character.UPPERCASE_LETTER:
+            case Character.TITLECASE_LETTER:
+            case Character.MODIFIER_LETTER:
+            case Character.OTHER_LETTER:
+                cls = LETTER | ALPHA;
+                break;
+            case Character.LOWERCASE_LETTER:
+                cls = LETTER | ALPHA | LOWER;
+                break;
+            case Character.COMBINING_SPACING_MARK:
+                cls = LETTER;
+                break;
+            case Character.NON_SPACING_MARK:
+            case Character.ENCLOSING_MARK:
+                cls = MARK;
+                break;
+            case Character.DECIMAL_DIGIT_NUMBER:
+            case Character.LETTER_NUMBER:
+            case Character.OTHER_NUMBER:
+                cls = NUMBER;
+                break;
+            case Character.SPACE_SEPARATOR:
+                cls = WHITE | SPACE;
+                break;
+            case Character.CONTROL:
+                switch( ch ) {
+                    case '\t':
+                        cls = WHITE | SPACE;
+                        break;
+                    case '\n':
+                    case '\f':
+                        cls = LINE | SPACE;
+                        break;
+                    case '\r':
+                        cls = CR | SPACE;
+                        break;
+                    default:
+                        return 0;
+                }
+                break;
+            case Character.FORMAT:
+            case Character.LINE_SEPARATOR:
+            case Character.PARAGRAPH_SEPARATOR:
+            case Character.SURROGATE:
+            case Character.PRIVATE_USE:
+            case Character.UNASSIGNED:
+                return 0;
+            case Character.DASH_PUNCTUATION:
+            case Character.CONNECTOR_PUNCTUATION:
+                cls = MID_WORD;
+                break;
+            case Character.START_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+                cls = START_PUNCT;
+                break;
+            case Character.END_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+                cls = END_PUNCT;
+                break;
+            case Character.CURRENCY_SYMBOL:
+                cls = ch == '\u00A2' ? POST_NUM : PRE_NUM;
+                break;
+            default:
+                cls = 0;
+        }
+        if( Character.isLetter( ch ) && !Character.isUpperCase( ch ) ) {
+            cls |= NOT_UPPER;
+        }
+        if( Character.isDigit( ch ) ) {
+            cls |= DIGIT;
+        }
+        switch( ch ) {
+            case '\u2027':
+                cls |= MID_WORD;
+                break;
+            case '"':
+            case '\'':
+                cls |= MID_WORD | MID_NUM | START_PUNCT | END_PUNCT;
+                break;
+            case '.':
+                cls |= MID_WORD | MID_NUM | PRE_NUM | PERIOD;
+                break;
+            case ',':
+            case '\u066B':
+                cls |= MID_NUM;
+                break;
+            case '#':
+                cls |= PRE_NUM;
+                break;
+            case '%':
+            case '&':
+            case '\u066A':
+            case '\u2030':
+            case '\u2031':
+                cls |= POST_NUM;
+                break;
+            case '!':
+            case '?':
+                cls |= TERM;
+                break;
+        }
+        if( (cls & (ALPHA | SPACE | START_PUNCT | END_PUNCT | NUMBER | TERM | PERIOD | MARK)) == 0 && ch != ',' ) {
+            cls |= SENT_START;
+        }
+        return cls | SUPPORTED;
+    }
+
+    /**
+     * Get the class of a character.
+     */
+    private static int classOf( char ch ) {
+        return ch < CLASSES.length ? CLASSES[ch] : 0;
+    }
+
+    /**
+     * Check if all characters of a text are in the table. A combining mark is only supported after a letter or digit.
+     * @param text the text
+     * @return true, if all characters are supported
+     */
+    private static boolean isSupported( String text ) {
+        int previous = 0;
+        for( int i = 0; i < text.length(); i++ ) {
+            int cls = classOf( text.charAt( i ) );
+            if( (cls & SUPPORTED) == 0 ) {
+                return false;
+            }
+            if( (cls & MARK) != 0 ) {
+                if( (previous & (LETTER | NUMBER | MARK)) == 0 ) {
+                    return false;
+                }
+            }
+            previous = cls;
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setText( String newText ) {
+        text = newText;
+        count = 0;
+        current = 0;
+        int length = newText.length();
+        addBoundary( 0 );
+        supported = true;
+        if( sentence ) {
+            if( !isSupported( newText ) ) {
+                supported = false;
+                return;
+            }
+            for( int i = 0; i < length; ) {
+                i = nextSentence( i );
+                if( i < 0 ) {
+                    supported = false;
+                    return;
+                }
+                addBoundary( i );
+            }
+        } else {
+            int previous = 0;
+            for( int i = 0; i < length; ) {
+                int end = nextWord( i );
+                int wordFlags = 0;
+                for( int k = i; k < end; k++ ) {
+                    // the support of the characters is checked in the same pass as the flags of the word
+                    int cls = classOf( newText.charAt( k ) );
+                    if( (cls & SUPPORTED) == 0 || ((cls & MARK) != 0 && (previous & (LETTER | NUMBER | MARK)) == 0) ) {
+                        supported = false;
+                        return;
+                    }
+                    wordFlags |= cls;
+                    previous = cls;
+                }
+                flags[count - 1] = wordFlags;
+                addBoundary( end );
+                i = end;
+            }
+        }
+    }
+
+    /**
+     * If the last text can be broken with this class. If not then the Java BreakIterator must be used for it.
+     * @return true, if the boundaries are the same as of the Java BreakIterator
+     */
+    boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * Add a boundary.
+     */
+    private void addBoundary( int offset ) {
+        if( count == boundaries.length ) {
+            boundaries = Arrays.copyOf( boundaries, count * 2 );
+            if( flags != null ) {
+                flags = Arrays.copyOf( flags, count * 2 );
+            }
+        }
+        boundaries[count++] = offset;
+    }
+
+    /**
+     * Find the end of the word that starts at the given offset.
+     */
+    private int nextWord( int start ) {
+        String t = text;
+        int length = t.length();
+        int cls = classOf( t.charAt( start ) );
+        if( (cls & (WHITE | CR | LINE)) != 0 ) {
+            // a run of whitespace with an optional line break
+            int i = start;
+            while( i < length && (classOf( t.charAt( i ) ) & WHITE) != 0 ) {
+                i++;
+            }
+            if( i < length && t.charAt( i ) == '\r' ) {
+                i++;
+            }
+            if( i < length && (classOf( t.charAt( i ) ) & LINE) != 0 ) {
+                i++;
+            }
+            return i;
+        }
+        if( (cls & (LETTER | NUMBER)) != 0 ) {
+            return nextWordOrNumber( start );
+        }
+        if( (cls & PRE_NUM) != 0 && start + 1 < length && (classOf( t.charAt( start + 1 ) ) & NUMBER) != 0 ) {
+            return nextWordOrNumber( start + 1 );
+        }
+        int i = start + 1;
+        while( i < length && (classOf( t.charAt( i ) ) & MARK) != 0 ) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Find the end of a sequence of words and numbers. A word can include single punctuation between letters like
+     * apostrophes, hyphens and periods. A number can include single punctuation between digits and ends with an
+     * optional suffix like the percent sign.
+     * @param start the offset of a letter or digit
+     */
+    private int nextWordOrNumber( int start ) {
+        String t = text;
+        int length = t.length();
+        int i = start;
+        while( true ) {
+            boolean isWord = (classOf( t.charAt( i ) ) & LETTER) != 0;
+            int part = isWord ? LETTER : NUMBER;
+            i++;
+            while( i < length && (classOf( t.charAt( i ) ) & (part | MARK)) != 0 ) {
+                i++;
+            }
+            if( i >= length ) {
+                return i;
+            }
+            int cls = classOf( t.charAt( i ) );
+            if( (cls & (LETTER | NUMBER)) != 0 ) {
+                // a digit after a letter or a letter after a digit
+                continue;
+            }
+            if( (cls & (isWord ? MID_WORD : MID_NUM)) != 0 && i + 1 < length && (classOf( t.charAt( i + 1 ) ) & part) != 0 ) {
+                i++;
+                continue;
+            }
+            if( !isWord && (cls & POST_NUM) != 0 ) {
+                return i + 1;
+            }
+            return i;
+        }
+    }
+
+    /**
+     * Find the end of the sentence that starts at the given offset.
+     * @return the end or -1 if the rules of the Java runtime are not predictable
+     */
+    private int nextSentence( int start ) {
+        String t = text;
+        int length = t.length();
+        for( int i = start; i < length; i++ ) {
+            int cls = classOf( t.charAt( i ) );
+            if( (cls & TERM) != 0 ) {
+                // an exclamation or question mark ends ever a sentence
+                i++;
+                while( i < length && (classOf( t.charAt( i ) ) & (TERM | PERIOD | END_PUNCT)) != 0 ) {
+                    i++;
+                }
+                while( i < length && (classOf( t.charAt( i ) ) & SPACE) != 0 ) {
+                    i++;
+                }
+                return i;
+            }
+            if( (cls & PERIOD) != 0 ) {
+                boolean quote = false;
+                int end = i + 1;
+                while( end < length && (classOf( t.charAt( end ) ) & (PERIOD | END_PUNCT)) != 0 ) {
+                    quote |= (classOf( t.charAt( end ) ) & START_PUNCT) != 0;
+                    end++;
+                }
+                int next = end;
+                while( next < length && (classOf( t.charAt( next ) ) & SPACE) != 0 ) {
+                    next++;
+                }
+                if( next == length ) {
+                    continue;
+                }
+                if( next == end ) {
+                    // no space after the period
+                    if( quote || ((classOf( t.charAt( next ) ) & (LETTER | NUMBER)) == 0 && t.charAt( next ) != ',') ) {
+                        // a quote can also start the next sentence
+                        return -1;
+                    }
+                    continue;
+                }
+                int nextCls = classOf( t.charAt( next ) );
+                if( (nextCls & ALPHA) != 0 ) {
+                    // a period with 2 spaces ends ever a sentence, with one space only before an uppercase letter
+                    if( next - end > 1 || (nextCls & LOWER) == 0 ) {
+                        return next;
+                    }
+                } else if( (nextCls & (START_PUNCT | SENT_START)) != 0 ) {
+                    // punctuation before the first letter of the next sentence
+                    int k = next + 1;
+                    while( k < length && (classOf( t.charAt( k ) ) & (START_PUNCT | SENT_START)) != 0 ) {
+                        k++;
+                    }
+                    if( k < length && (classOf( t.charAt( k ) ) & ALPHA) != 0 ) {
+                        return next;
+                    }
+                    if( k == length || next - end > 1 ) {
+                        return -1;
+                    }
+                } else if( (nextCls & NUMBER) == 0 && t.charAt( next ) != ',' ) {
+                    return -1;
+                }
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Check if all letters of the word are uppercase. Characters that are not letters are ignored.
+     * @param start the start offset of the word, a boundary of this breaker
+     * @return true, if there is no lowercase letter
+     * @see TextUtils#isAllCapitalized(CharSequence, int, int)
+     */
+    boolean isAllCapitalized( int start ) {
+        return (getFlags( start ) & NOT_UPPER) == 0;
+    }
+
+    /**
+     * Check if the word include a digit.
+     * @param start the start offset of the word, a boundary of this breaker
+     * @return true, if there is any digit
+     * @see TextUtils#isIncludeNumbers(CharSequence, int, int)
+     */
+    boolean isIncludeNumbers( int start ) {
+        return (getFlags( start ) & DIGIT) != 0;
+    }
+
+    /**
+     * Get the flags of the word that starts on the boundary.
+     */
+    private int getFlags( int start ) {
+        int idx = Arrays.binarySearch( boundaries, 0, count, start );
+        if( idx < 0 ) {
+            throw new IllegalArgumentException( "No word start: " + start );
+        }
+        return flags[idx];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int first() {
+        current = 0;
+        return boundaries[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int last() {
+        current = count - 1;
+        return boundaries[current];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int next( int n ) {
+        int result = current();
+        while( n > 0 && result != DONE ) {
+            result = next();
+            n--;
+        }
+        while( n < 0 && result != DONE ) {
+            result = previous();
+            n++;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int next() {
+        if( current >= count - 1 ) {
+            current = count - 1;
+            return DONE;
+        }
+        return boundaries[++current];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int previous() {
+        if( current <= 0 ) {
+            return DONE;
+        }
+        return boundaries[--current];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int following( int offset ) {
+        if( offset < 0 || offset > text.length() ) {
+            throw new IllegalArgumentException( "offset out of bounds" );
+        }
+        int idx = Arrays.binarySearch( boundaries, 0, count, offset );
+        idx = idx < 0 ? -idx - 1 : idx + 1;
+        if( idx >= count ) {
+            current = count - 1;
+            return DONE;
+        }
+        current = idx;
+        return boundaries[idx];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int current() {
+        return boundaries[current];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CharacterIterator getText() {
+        return new StringCharacterIterator( text );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setText( CharacterIterator newText ) {
+        StringBuilder builder = new StringBuilder();
+        for( char ch = newText.first(); ch != CharacterIterator.DONE; ch = newText.next() ) {
+            builder.append( ch );
+        }
+        setText( builder.toString() );
+    }
+}
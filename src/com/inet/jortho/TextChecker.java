@@ -0,0 +1,285 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Check texts without a text component. This class has no dependency to AWT or Swing and does not create any Swing
+ * objects. It can be used on a server. The rules are the same as for the text components with the
+ * {@link SpellChecker}.
+ * <p>
+ * The dictionaries are registered per language. All methods are thread safe and a dictionary is shared by all
+ * threads.
+ * <code><pre>
+ * TextChecker checker = new TextChecker();
+ * checker.loadDictionary( Locale.ENGLISH, new URL( "file:dictionaries/dictionary_en.ortho" ) );
+ * for( Misspelling misspelling : checker.check( text, Locale.ENGLISH, null ) ) {
+ *     System.out.println( misspelling.getWord() + " at " + misspelling.getOffset() );
+ * }
+ * </pre></code>
+ * Large texts can be checked as stream with {@link #check(Reader, Locale, SpellCheckerOptions, MisspellingListener)}.
+ */
+public class TextChecker {
+
+    /** the count of characters that are read at once from a stream */
+    static final int WINDOW_SIZE = 0x10000;
+
+    private final ConcurrentHashMap<Locale, DictionaryBase> dictionaries = new ConcurrentHashMap<Locale, DictionaryBase>();
+
+    /**
+     * Create a checker without dictionaries.
+     */
+    public TextChecker() {
+        //empty block
+    }
+
+    /**
+     * Set the dictionary for a language.
+     * @param locale the language
+     * @param dictionary the dictionary or null to remove the dictionary of the language
+     */
+    public void setDictionary( Locale locale, Dictionary dictionary ) {
+        if( dictionary == null ) {
+            dictionaries.remove( locale );
+        } else {
+            dictionaries.put( locale, dictionary );
+        }
+    }
+
+    /**
+     * Load the dictionary of a language. It can be a word list (dictionary_xx.ortho) or a precompiled dictionary
+     * (dictionary_xx.orthobin).
+     * @param locale the language
+     * @param url the location of the dictionary file
+     * @throws IOException if an I/O error occurs
+     */
+    public void loadDictionary( Locale locale, URL url ) throws IOException {
+        Dictionary dictionary;
+        if( url.getPath().endsWith( PrecompiledDictionary.EXTENSION ) ) {
+            dictionary = PrecompiledDictionary.load( url );
+        } else {
+            DictionaryBuilder builder = new DictionaryBuilder();
+            builder.loadWordList( url );
+            dictionary = builder.create();
+        }
+        setDictionary( locale, dictionary );
+    }
+
+    /**
+     * Check if there is a dictionary for a language.
+     * @param locale the language
+     * @return true, if texts of this language can be checked
+     */
+    public boolean hasDictionary( Locale locale ) {
+        return getDictionary( locale ) != null;
+    }
+
+    /**
+     * Get the dictionary for a locale. If there is no dictionary for the locale then the dictionary of the language
+     * without country is used.
+     * @param locale the locale
+     * @return the dictionary or null
+     */
+    DictionaryBase getDictionary( Locale locale ) {
+        DictionaryBase dictionary = dictionaries.get( locale );
+        if( dictionary == null && locale.getCountry().length() > 0 ) {
+            dictionary = dictionaries.get( new Locale( locale.getLanguage() ) );
+        }
+        return dictionary;
+    }
+
+    /**
+     * Search all misspelled words in a text. The text is checked paragraph by paragraph. A paragraph ends with a line
+     * break. If the option {@link SpellCheckerOptions#isParallelCheck()} is set then the paragraphs are checked on all
+     * processors.
+     * @param text the text
+     * @param locale the language of the text, there must be a dictionary for it
+     * @param options the options or null for the default options
+     * @return the misspelled words in the order of the text, can be empty
+     * @throws IllegalArgumentException if there is no dictionary for the locale
+     */
+    public List<Misspelling> check( CharSequence text, Locale locale, SpellCheckerOptions options ) {
+        if( options != null && options.isParallelCheck() ) {
+            return ParallelChecker.check( text.toString(), requireDictionary( locale ), locale, options );
+        }
+        final ArrayList<Misspelling> result = new ArrayList<Misspelling>();
+        checkParagraphs( createTokenizer( locale, options ), text.toString(), 0, true, new MisspellingListener() {
+            public void misspellingFound( Misspelling misspelling ) {
+                result.add( misspelling );
+            }
+        } );
+        return result;
+    }
+
+    /**
+     * Search all misspelled words in a stream. The stream is read in windows of a fixed size. Only the current window
+     * is hold in memory. That the memory does not grow with the size of the stream. Every window is cut at the last
+     * line break. If a line is larger as the window then it is cut at the last sentence or at the last word boundary.
+     * A single word that is larger as the window enlarges the window. The reader is not closed.
+     * @param reader the text
+     * @param locale the language of the text, there must be a dictionary for it
+     * @param options the options or null for the default options
+     * @param listener receive the misspelled words in the order of the text
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if there is no dictionary for the locale
+     */
+    public void check( Reader reader, Locale locale, SpellCheckerOptions options, MisspellingListener listener ) throws IOException {
+        check( reader, locale, options, listener, WINDOW_SIZE );
+    }
+
+    /**
+     * Search all misspelled words in a channel. Malformed input is replaced with the replacement character of the
+     * charset. The offsets of the misspellings are in characters. The channel is not closed.
+     * @param channel the text
+     * @param charset the encoding of the text
+     * @param locale the language of the text, there must be a dictionary for it
+     * @param options the options or null for the default options
+     * @param listener receive the misspelled words in the order of the text
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if there is no dictionary for the locale
+     * @see #check(Reader, Locale, SpellCheckerOptions, MisspellingListener)
+     */
+    public void check( ReadableByteChannel channel, Charset charset, Locale locale, SpellCheckerOptions options, MisspellingListener listener ) throws IOException {
+        CharsetDecoder decoder = charset.newDecoder().onMalformedInput( CodingErrorAction.REPLACE ).onUnmappableCharacter( CodingErrorAction.REPLACE );
+        check( Channels.newReader( channel, decoder, -1 ), locale, options, listener );
+    }
+
+    /**
+     * Search all misspelled words in a stream with a given window size.
+     * @see #check(Reader, Locale, SpellCheckerOptions, MisspellingListener)
+     */
+    void check( Reader reader, Locale locale, SpellCheckerOptions options, MisspellingListener listener, int windowSize ) throws IOException {
+        TextTokenizer tokenizer = createTokenizer( locale, options );
+        BreakIterator sentences = null;
+        char[] buffer = new char[windowSize];
+        int length = 0;
+        long position = 0;
+        boolean sentenceStart = true;
+        boolean eof = false;
+        while( !eof || length > 0 ) {
+            while( !eof && length < buffer.length ) {
+                int count = reader.read( buffer, length, buffer.length - length );
+                if( count < 0 ) {
+                    eof = true;
+                } else {
+                    length += count;
+                }
+            }
+            String text;
+            boolean nextSentenceStart = true;
+            int end = length;
+            if( !eof ) {
+                // cut after the last line break
+                while( end > 0 && buffer[end - 1] != '\n' ) {
+                    end--;
+                }
+            }
+            if( end > 0 ) {
+                text = new String( buffer, 0, end );
+            } else {
+                // a line that is larger as the window, cut before the last sentence
+                text = new String( buffer, 0, length );
+                if( sentences == null ) {
+                    sentences = BreakIterator.getSentenceInstance( locale );
+                }
+                sentences.setText( text );
+                end = sentences.preceding( length );
+                if( end <= 0 ) {
+                    // cut before the last word, the word can be incomplete. At least one character must follow the
+                    // cut, else a sentence boundary on the cut is not detected.
+                    nextSentenceStart = false;
+                    end = length - 1;
+                    while( end > 0 && !Character.isWhitespace( buffer[end - 1] ) ) {
+                        end--;
+                    }
+                    if( end == 0 ) {
+                        // a word that is larger as the window, the window is enlarged that the word is not split
+                        buffer = Arrays.copyOf( buffer, buffer.length * 2 );
+                        continue;
+                    }
+                }
+                text = text.substring( 0, end );
+            }
+            checkParagraphs( tokenizer, text, position, sentenceStart, listener );
+            sentenceStart = nextSentenceStart;
+            System.arraycopy( buffer, end, buffer, 0, length - end );
+            length -= end;
+            position += end;
+        }
+    }
+
+    /**
+     * Get the dictionary for a locale.
+     * @throws IllegalArgumentException if there is no dictionary for the locale
+     */
+    private DictionaryBase requireDictionary( Locale locale ) {
+        DictionaryBase dictionary = getDictionary( locale );
+        if( dictionary == null ) {
+            throw new IllegalArgumentException( "No dictionary for: " + locale );
+        }
+        return dictionary;
+    }
+
+    /**
+     * Create a tokenizer for a language.
+     * @throws IllegalArgumentException if there is no dictionary for the locale
+     */
+    private TextTokenizer createTokenizer( Locale locale, SpellCheckerOptions options ) {
+        return new TextTokenizer( requireDictionary( locale ), locale, options == null ? new SpellCheckerOptions() : options );
+    }
+
+    /**
+     * Check the paragraphs of a text.
+     * @param tokenizer the tokenizer
+     * @param text the text
+     * @param position the offset of the text
+     * @param sentenceStart false, if the text continues the last sentence of the previous text
+     * @param listener receive the misspelled words
+     */
+    static void checkParagraphs( TextTokenizer tokenizer, String text, long position, boolean sentenceStart, MisspellingListener listener ) {
+        int length = text.length();
+        for( int start = 0; start < length; ) {
+            int end = text.indexOf( '\n', start );
+            end = end < 0 ? length : end + 1;
+            tokenizer.setText( start == 0 && end == length ? text : text.substring( start, end ), sentenceStart || start > 0 );
+            for( String word; (word = tokenizer.nextInvalidWord()) != null; ) {
+                listener.misspellingFound( new Misspelling( position + start + tokenizer.getWordOffset(), word, tokenizer.isFirstWordInSentence() ) );
+            }
+            start = end;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.text.BreakIterator;
+import java.util.Locale;
+
+/**
+ * Break a paragraph into sentences and words and search for misspelling. This is the part of the {@link Tokenizer}
+ * without a Swing document. It is used for the text components and for the headless checking with a
+ * {@link TextChecker}. An instance is not thread safe. The dictionary can be shared between threads.
+ */
+final class TextTokenizer {
+
+    private final DictionaryBase      dictionary;
+
+    private final SpellCheckerOptions options;
+
+    private final LanguageBundle      bundle;
+
+    private final BreakIterator       sentenceBreaker;
+
+    private final BreakIterator       wordBreaker;
+
+    private TableBreakIterator        tableSentences, tableWords;
+
+    /** the breaker of the current paragraph and sentence */
+    private BreakIterator             sentences, words;
+
+    private String                    phrase;
+
+    private int                       startSentence, endSentence, startWord, endWord;
+
+    private String                    sentence;
+
+    private int                       wordOffset;
+
+    private boolean                   isFirstWordInSentence;
+
+    private boolean                   sentenceStart;
+
+    /**
+     * Create a tokenizer without a text.
+     * @param dictionary the used Dictionary
+     * @param locale the used Locale, is needed for the word and sentence breaker
+     * @param options the options, can't be null
+     */
+    TextTokenizer( DictionaryBase dictionary, Locale locale, SpellCheckerOptions options ) {
+        this.dictionary = dictionary;
+        this.options = options;
+        bundle = LanguageBundle.get( locale );
+        sentenceBreaker = BreakIterator.getSentenceInstance( locale );
+        wordBreaker = BreakIterator.getWordInstance( locale );
+    }
+
+    /**
+     * Set the text of the next paragraph.
+     * @param text the text
+     */
+    void setText( String text ) {
+        setText( text, true );
+    }
+
+    /**
+     * Set the next part of a text.
+     * @param text the text
+     * @param sentenceStart false, if the text continues the last sentence of the previous text
+     */
+    void setText( String text, boolean sentenceStart ) {
+        this.sentenceStart = sentenceStart;
+        phrase = TextUtils.replaceUnicodeQuotation( text );
+        setSentenceText();
+        endSentence = sentences.first();
+        endWord = BreakIterator.DONE;
+    }
+
+    /**
+     * Get the next misspelling word of the paragraph. If not found then it return null.
+     */
+    String nextInvalidWord() {
+        isFirstWordInSentence = false;
+        while( true ) {
+            if( endWord == BreakIterator.DONE ) {
+                startSentence = endSentence;
+                endSentence = sentences.next();
+                if( endSentence == BreakIterator.DONE ) {
+                    return null;
+                }
+                nextSentence();
+            }
+            while( endWord != BreakIterator.DONE ) {
+                // the range of the word without white spaces, a String is only created for misspelled words
+                int start = startWord;
+                int end = endWord;
+                while( start < end && sentence.charAt( start ) <= ' ' ) {
+                    start++;
+                }
+                while( start < end && sentence.charAt( end - 1 ) <= ' ' ) {
+                    end--;
+                }
+                wordOffset = startSentence + startWord;
+                startWord = endWord;
+                endWord = words.next();
+                //only words with 2 or more characters are checked
+                if( end - start > 1 && Character.isLetter( sentence.charAt( start ) )){
+                    boolean exist = bundle.existInDictionary( sentence, start, end, dictionary, options, isFirstWordInSentence );
+
+                    if( !exist && options.isIgnoreAllCapsWords() ){
+                        exist = words == tableWords ? tableWords.isAllCapitalized( wordOffset - startSentence ) : TextUtils.isAllCapitalized( sentence, start, end );
+                    }
+
+                    if( !exist && options.isIgnoreWordsWithNumbers() ){
+                        exist = words == tableWords ? tableWords.isIncludeNumbers( wordOffset - startSentence ) : TextUtils.isIncludeNumbers( sentence, start, end );
+                    }
+
+                    if( !exist && startWord + 1 == endWord ) {
+                        char nextChar = sentence.charAt( startWord );
+                        switch( nextChar ) {
+                            case '.':
+                            case '\'':
+                                if( end == startWord ) {
+                                    // the next character follow directly
+                                    exist = bundle.existInDictionary( sentence, start, end + 1, dictionary, options, isFirstWordInSentence );
+                                } else {
+                                    exist = bundle.existInDictionary( sentence.substring( start, end ) + nextChar, dictionary, options, isFirstWordInSentence );
+                                }
+                        }
+                    }
+
+                    if( !exist ) {
+                        String word = sentence.substring( start, end );
+                        if( !isWebAddress( word ) ) {
+                            return word;
+                        }
+                    }
+                    isFirstWordInSentence = false;
+                } else if( end - start == 1 ) {
+                    // Handle a colon like a point. The next word can start with upper case.
+                    char ch = sentence.charAt( start );
+                    if( ch == ':' || ch == '(' ){
+                        isFirstWordInSentence = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if the word is a web address. This means a email address or web page address.
+     *
+     * @param word
+     *            the word that should be check. It can not be null and can not include any whitespace.
+     * @return true if it is a web address.
+     */
+    private boolean isWebAddress( String word ){
+        if( startWord >= sentence.length() ){
+            return false;
+        }
+        if( sentence.charAt( startWord ) == '@' ){
+            word += '@';
+            startWord = endWord;
+            endWord = words.next();
+            String domaine = sentence.substring( startWord, endWord ).trim();
+            if( domaine.length()>3 && domaine.indexOf( '.' ) > 0 ){
+                startWord = endWord;
+                endWord = words.next();
+                return true;
+            }
+            return false;
+        }
+        if( startWord + 3 < sentence.length() && sentence.charAt( startWord ) == ':' && sentence.charAt( startWord + 1 ) == '/' && sentence.charAt( startWord + 2 ) == '/' ) {
+            while(startWord < endWord){
+                String next = sentence.substring( startWord, endWord ).trim();
+                if( next.length() > 0 ){
+                    word += next;
+                    startWord = endWord;
+                    endWord = words.next();
+                } else {
+                    break;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Was the last invalid word the first word in a sentence.
+     *
+     * @return true if it was the first word.
+     */
+    boolean isFirstWordInSentence(){
+        return isFirstWordInSentence;
+    }
+
+    /**
+     * Load the next Sentence in the word breaker.
+     */
+    private void nextSentence() {
+        sentence = phrase.substring( startSentence, endSentence );
+        setWordText();
+        startWord = words.first();
+        endWord = words.next();
+        isFirstWordInSentence = startSentence > 0 || sentenceStart;
+    }
+
+    /**
+     * Set the paragraph to the sentence breaker. The table driven breaker is used if it is enabled and supports the
+     * text.
+     */
+    private void setSentenceText() {
+        if( options.isFastTokenizer() ) {
+            if( tableSentences == null ) {
+                tableSentences = new TableBreakIterator( true );
+                tableWords = new TableBreakIterator( false );
+            }
+            tableSentences.setText( phrase );
+            if( tableSentences.isSupported() ) {
+                sentences = tableSentences;
+                return;
+            }
+        }
+        sentences = sentenceBreaker;
+        sentences.setText( phrase );
+    }
+
+    /**
+     * Set the current sentence to the word breaker.
+     */
+    private void setWordText() {
+        if( tableWords != null && options.isFastTokenizer() ) {
+            tableWords.setText( sentence );
+            if( tableWords.isSupported() ) {
+                words = tableWords;
+                return;
+            }
+        }
+        words = wordBreaker;
+        words.setText( sentence );
+    }
+
+    /**
+     * Get start offset of the last misspelling in the paragraph.
+     */
+    int getWordOffset() {
+        return wordOffset;
+    }
+
+    /**
+     * Update the text of the paragraph after a word was replaced. The changes in the text should be only after the
+     * current word offset.
+     * @param text the new text of the paragraph
+     */
+    void updateText( String text ) {
+        phrase = TextUtils.replaceUnicodeQuotation( text );
+        setSentenceText();
+
+        endSentence = sentences.following( startSentence );
+        sentence = phrase.substring( startSentence, endSentence );
+
+        setWordText();
+        startWord = words.following( wordOffset - startSentence );
+        endWord = words.next();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.Locale;
+
+/**
+ * Helper methods for the characters of words. This class has no dependency to AWT or Swing. That it can be used from
+ * the headless text checking.
+ */
+final class TextUtils {
+
+    /**
+     * There is no instance needed. All methods are static.
+     */
+    private TextUtils() {
+        /* nothing */
+    }
+
+    /**
+     * Create a String with inverted case for the first letter. If it is lowercase then it will change to uppercase and
+     * vice versa.
+     * 
+     * @param word
+     *            the word that should be change
+     * @return the new String if needed
+     */
+    static String getInvertedCapitalizion( String word ) {
+        if( word.length() > 0 ) {
+            if( Character.isLowerCase( word.charAt( 0 ) ) ) {
+                return word.substring( 0, 1 ).toUpperCase() + word.substring( 1 );
+            }
+            if( Character.isUpperCase( word.charAt( 0 ) ) ) {
+                return word.substring( 0, 1 ).toLowerCase() + word.substring( 1 );
+            }
+        }
+        return word;
+    }
+
+    /**
+     * Invert the case of a character like {@link #getInvertedCapitalizion(String)} do it for the first letter. The
+     * String methods can create more as one character or depends on the default locale, for example the German sharp s
+     * or the Turkish dotless i. For such characters there is no result and the String method must be used.
+     * 
+     * @param ch
+     *            the character that should be change
+     * @return the inverted character, the same character if it has no case or 0 if the String method must be used
+     */
+    static char getInvertedCase( char ch ) {
+        if( ch >= 0x100 || ch == '\u00DF' ) {
+            return 0;
+        }
+        if( ch == 'i' || ch == 'I' || ch == '\u00CC' || ch == '\u00CD' ) {
+            String language = Locale.getDefault().getLanguage();
+            if( "tr".equals( language ) || "az".equals( language ) || "lt".equals( language ) ) {
+                return 0;
+            }
+        }
+        if( Character.isLowerCase( ch ) ) {
+            return Character.toUpperCase( ch );
+        }
+        if( Character.isUpperCase( ch ) ) {
+            return Character.toLowerCase( ch );
+        }
+        return ch;
+    }
+
+    /**
+     * Check if all letter of a range are uppercase. Character that are not letters are ignored.
+     * 
+     * @param text
+     *            the text with the word. It can not be null.
+     * @param start
+     *            the start of the word
+     * @param end
+     *            the end of the word, exclusive
+     * @return if all character are a uppercase letter
+     */
+    static boolean isAllCapitalized( CharSequence text, int start, int end ) {
+        for( int i = start; i < end; i++ ) {
+            char ch = text.charAt( i );
+
+            if( Character.isLetter( ch ) && !Character.isUpperCase( ch ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if a range of a text include a digit.
+     * 
+     * @param text
+     *            the text with the word. It can not be null.
+     * @param start
+     *            the start of the word
+     * @param end
+     *            the end of the word, exclusive
+     * @return if there is any number in the word.
+     */
+    static boolean isIncludeNumbers( CharSequence text, int start, int end ) {
+        for( int i = start; i < end; i++ ) {
+            char ch = text.charAt( i );
+            if( Character.isDigit( ch ) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check and replace Unicode variants of quotation marks and hyphens. Unicode characters for general punctuation can
+     * be seen here: http://www.unicodemap.org/range/40/General_Punctuation/
+     * 
+     * @param word
+     *            the word that should be check. It can not be null.
+     * @return A new string of the same length as the original.
+     */
+    static String replaceUnicodeQuotation( String word ) {
+        char[] newWord = null;
+
+        for( int i = 0; i < word.length(); i++ ) {
+            char ch = word.charAt( i );
+
+            switch( ch ) {
+                case '\u2018': // LEFT SINGLE QUOTATION MARK
+                case '\u2019': // RIGHT SINGLE QUOTATION MARK
+                case '\u201a': // SINGLE LOW-9 QUOTATION MARK
+                case '\u201b': // SINGLE HIGH-REVERSED-9 QUOTATION MARK
+                case '\u00B4': // These last two should probably not be included,
+                case '`': // they are not really quotation marks.
+                    if( newWord == null ){
+                        newWord = word.toCharArray();
+                    }
+                    newWord[i] = '\'';
+                    break;
+                case '\u2011': // NON-BREAKING HYPHEN
+                case '\u2012': // FIGURE DASH
+                case '\u2013': // EN DASH
+                case '\u2014': // EM DASH
+                case '\u2015': // HORIZONTAL BAR
+                    if( newWord == null ){
+                        newWord = word.toCharArray();
+                    }
+                    newWord[i] = '-';
+                    break;
+            }
+        }
+        return ( newWord == null ) ? word : new String( newWord );
+    }
+}
@@ -173,15 +173,20 @@ public class Utils {
      * @return the new String if needed
      */
     static String getInvertedCapitalizion( String word ) {
-        if( word.length() > 0 ) {
-            if( Character.isLowerCase( word.charAt( 0 ) ) ) {
-                return word.substring( 0, 1 ).toUpperCase() + word.substring( 1 );
-            }
-            if( Character.isUpperCase( word.charAt( 0 ) ) ) {
-                return word.substring( 0, 1 ).toLowerCase() + word.substring( 1 );
-            }
-        }
-        return word;
+        return TextUtils.getInvertedCapitalizion( word );
+    }
+
+    /**
+     * Invert the case of a character like {@link #getInvertedCapitalizion(String)} do it for the first letter. The
+     * String methods can create more as one character or depends on the default locale, for example the German sharp s
+     * or the Turkish dotless i. For such characters there is no result and the String method must be used.
+     * 
+     * @param ch
+     *            the character that should be change
+     * @return the inverted character, the same character if it has no case or 0 if the String method must be used
+     */
+    static char getInvertedCase( char ch ) {
+        return TextUtils.getInvertedCase( ch );
     }
 
     /**
@@ -203,14 +208,22 @@ public class Utils {
      * @return if all character are a uppercase letter
      */
     static boolean isAllCapitalized( String word ) {
-        for( int i = 0; i < word.length(); i++ ) {
-            char ch = word.charAt( i );
+        return isAllCapitalized( word, 0, word.length() );
+    }
 
-            if( Character.isLetter( ch ) && !Character.isUpperCase( ch ) ) {
-                return false;
-            }
-        }
-        return true;
+    /**
+     * Check if all letter of a range are uppercase. Character that are not letters are ignored.
+     * 
+     * @param text
+     *            the text with the word. It can not be null.
+     * @param start
+     *            the start of the word
+     * @param end
+     *            the end of the word, exclusive
+     * @return if all character are a uppercase letter
+     */
+    static boolean isAllCapitalized( CharSequence text, int start, int end ) {
+        return TextUtils.isAllCapitalized( text, start, end );
     }
 
     /**
@@ -221,13 +234,22 @@ public class Utils {
      * @return if there is any number in the word.
      */
     static boolean isIncludeNumbers( String word ) {
-        for( int i = 0; i < word.length(); i++ ) {
-            char ch = word.charAt( i );
-            if( Character.isDigit( ch ) ) {
-                return true;
-            }
-        }
-        return false;
+        return isIncludeNumbers( word, 0, word.length() );
+    }
+
+    /**
+     * Check if a range of a text include a digit.
+     * 
+     * @param text
+     *            the text with the word. It can not be null.
+     * @param start
+     *            the start of the word
+     * @param end
+     *            the end of the word, exclusive
+     * @return if there is any number in the word.
+     */
+    static boolean isIncludeNumbers( CharSequence text, int start, int end ) {
+        return TextUtils.isIncludeNumbers( text, start, end );
     }
     
     /**
@@ -239,35 +261,6 @@ public class Utils {
      * @return A new string of the same length as the original.
      */
     public static String replaceUnicodeQuotation( String word ) {
-        char[] newWord = null;
-
-        for( int i = 0; i < word.length(); i++ ) {
-            char ch = word.charAt( i );
-
-            switch( ch ) {
-                case '\u2018': // LEFT SINGLE QUOTATION MARK
-                case '\u2019': // RIGHT SINGLE QUOTATION MARK
-                case '\u201a': // SINGLE LOW-9 QUOTATION MARK
-                case '\u201b': // SINGLE HIGH-REVERSED-9 QUOTATION MARK
-                case '´': // These last two should probably not be included,
-                case '`': // they are not really quotation marks.
-                    if( newWord == null ){
-                        newWord = word.toCharArray();
-                    }
-                    newWord[i] = '\'';
-                    break;
-                case '\u2011': // NON-BREAKING HYPHEN
-                case '\u2012': // FIGURE DASH
-                case '\u2013': // EN DASH
-                case '\u2014': // EM DASH
-                case '\u2015': // HORIZONTAL BAR
-                    if( newWord == null ){
-                        newWord = word.toCharArray();
-                    }
-                    newWord[i] = '-';
-                    break;
-            }
-        }
-        return ( newWord == null ) ? word : new String( newWord );
+        return TextUtils.replaceUnicodeQuotation( word );
     }
 }
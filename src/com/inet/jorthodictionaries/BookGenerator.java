@@ -148,7 +148,7 @@ public abstract class BookGenerator {
         Method create = clazz.getDeclaredMethod( "create" );
         create.setAccessible(true);
         Object dictionary = create.invoke( factory );
-        Method getDataSize = dictionary.getClass().getDeclaredMethod( "getDataSize" );
+        Method getDataSize = dictionary.getClass().getMethod( "getDataSize" );
         getDataSize.setAccessible(true);
         Integer size = (Integer)getDataSize.invoke( dictionary );
         statistics += "Dictionary size in memory (bytes): " + size+"\r\n";
@@ -61,6 +61,10 @@ public class AllTests {
         suite.addTestSuite( MemoryTest.class );
         suite.addTestSuite( UtilsTest.class );
         suite.addTestSuite( BookUtilsTest.class );
+        suite.addTestSuite( DictionaryTest.class );
+        suite.addTestSuite( TextCheckerTest.class );
+        suite.addTestSuite( BatchCheckerTest.class );
+        suite.addTestSuite( TableBreakIteratorTest.class );
         return suite;
     }
 }
@@ -0,0 +1,116 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class BatchCheckerTest extends TestCase {
+
+    /**
+     * Check many texts concurrently with different options and verify the limit of pending requests.
+     */
+    public void testBatchChecker() throws Exception {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        SpellCheckerOptions ignoreCapitalization = new SpellCheckerOptions();
+        ignoreCapitalization.setIgnoreCapitalization( true );
+        String[] texts = { "The house hose", "the Mouse. then hoose", "Spell checker. Spel cheker", "There Horse" };
+
+        try( BatchChecker batch = new BatchChecker( checker, 3 ) ) {
+            List<CompletableFuture<List<Misspelling>>> futures = new ArrayList<>();
+            for( int i = 0; i < 200; i++ ) {
+                futures.add( batch.submit( texts[i % texts.length], Locale.ENGLISH, i % 2 == 0 ? null : ignoreCapitalization ) );
+                assertTrue( batch.getPendingCount() <= 3 );
+            }
+            CompletableFuture<List<Misspelling>> failed = batch.submit( "house", Locale.GERMAN, null );
+            for( int i = 0; i < futures.size(); i++ ) {
+                assertEquals( checker.check( texts[i % texts.length], Locale.ENGLISH, i % 2 == 0 ? null : ignoreCapitalization ), futures.get( i ).get() );
+            }
+            try {
+                failed.get();
+                fail( "ExecutionException expected" );
+            } catch( ExecutionException ex ) {
+                assertTrue( ex.getCause() instanceof IllegalArgumentException );
+            }
+
+            Map<Locale, CheckMetrics> metrics = batch.getMetrics();
+            assertEquals( 200, metrics.get( Locale.ENGLISH ).getRequestCount() );
+            assertEquals( 0, metrics.get( Locale.ENGLISH ).getErrorCount() );
+            assertEquals( 1, metrics.get( Locale.GERMAN ).getErrorCount() );
+            assertTrue( metrics.get( Locale.ENGLISH ).getMisspellingCount() > 0 );
+            assertTrue( metrics.get( Locale.ENGLISH ).getMaxLatency() >= metrics.get( Locale.ENGLISH ).getAverageLatency() );
+        }
+
+        // a queue without a running thread for the backpressure
+        final List<Runnable> queue = new ArrayList<>();
+        BatchChecker batch = new BatchChecker( checker, queue::add, 2 );
+        CompletableFuture<List<Misspelling>> first = batch.trySubmit( "hoose", Locale.ENGLISH, null );
+        assertNotNull( first );
+        assertNotNull( batch.trySubmit( "house", Locale.ENGLISH, null ) );
+        assertNull( batch.trySubmit( "house", Locale.ENGLISH, null ) );
+        assertEquals( 2, batch.getPendingCount() );
+        queue.remove( 0 ).run();
+        assertEquals( 1, batch.getPendingCount() );
+        assertEquals( Arrays.asList( new Misspelling( 0, "hoose", true ) ), first.get() );
+        assertNotNull( batch.trySubmit( "house", Locale.ENGLISH, null ) );
+    }
+
+    /**
+     * A request that can't be checked must not hold a permit.
+     */
+    public void testBatchCheckerInvalidRequest() throws Exception {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        try( BatchChecker batch = new BatchChecker( checker, 1 ) ) {
+            try {
+                batch.submit( "hello", null, null );
+                fail( "NullPointerException expected" );
+            } catch( NullPointerException ex ) {
+                // expected
+            }
+            try {
+                batch.trySubmit( null, Locale.ENGLISH, null );
+                fail( "NullPointerException expected" );
+            } catch( NullPointerException ex ) {
+                // expected
+            }
+            assertEquals( 0, batch.getPendingCount() );
+            try {
+                batch.submit( "house", Locale.GERMAN, null ).get();
+                fail( "ExecutionException expected" );
+            } catch( ExecutionException ex ) {
+                assertTrue( ex.getCause() instanceof IllegalArgumentException );
+            }
+            assertEquals( Arrays.asList( new Misspelling( 0, "hoose", true ) ), batch.submit( "hoose", Locale.ENGLISH, null ).get( 10, TimeUnit.SECONDS ) );
+        }
+    }
+}
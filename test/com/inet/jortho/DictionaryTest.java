@@ -0,0 +1,823 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class DictionaryTest extends TestCase {
+
+    static final String[] WORDS = { "house", "houses", "mouse", "horse", "hose", "host", "hostel", "the", "then", "there", "their", "spell", "spelling", "checker" };
+
+    /**
+     * Create a small dictionary with the test words.
+     */
+    static Dictionary createDictionary() {
+        DictionaryFactory factory = new DictionaryFactory();
+        for( String word : WORDS ) {
+            factory.add( word );
+        }
+        return factory.create();
+    }
+
+    /**
+     * Get the URL of a bundled dictionary.
+     */
+    static URL getDictionaryURL( String language ) {
+        return DictionaryTest.class.getResource( "/com/inet/jortho/i18n/resource/languages/dictionary_" + language + ".ortho" );
+    }
+
+    /**
+     * Load the first words of a bundled word list.
+     */
+    static List<String> loadWords( String language, int count ) throws Exception {
+        ArrayList<String> words = new ArrayList<String>();
+        WordIterator iterator = new WordIterator( getDictionaryURL( language ) );
+        while( iterator.hasNext() && words.size() < count ) {
+            String word = iterator.next();
+            if( word.length() > 1 ) {
+                words.add( word );
+            }
+        }
+        return words;
+    }
+
+    public void testExist() {
+        Dictionary dictionary = createDictionary();
+        for( String word : WORDS ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        assertFalse( dictionary.exist( "hous" ) );
+        assertFalse( dictionary.exist( "housess" ) );
+        assertFalse( dictionary.exist( "xyz" ) );
+        assertFalse( dictionary.exist( "" ) );
+    }
+
+    public void testAdd() {
+        Dictionary dictionary = createDictionary();
+        assertFalse( dictionary.exist( "hostess" ) );
+        dictionary.add( "hostess" );
+        dictionary.trimToSize();
+        assertTrue( dictionary.exist( "hostess" ) );
+        for( String word : WORDS ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+    }
+
+    public void testOverlay() {
+        Dictionary dictionary = createDictionary();
+        char[] tree = dictionary.toArray();
+        String[] added = { "hostess", "ho", "houseboat", "zebra", "a", "hostess", "mouses" };
+        for( String word : added ) {
+            dictionary.add( word );
+        }
+        assertTrue( "the tree must not change", Arrays.equals( tree, dictionary.toArray() ) );
+        assertEquals( 6, dictionary.getAddedWordCount() );
+        for( String word : added ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        for( String word : WORDS ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        assertFalse( dictionary.exist( "hos" ) );
+        assertFalse( dictionary.exist( "zebr" ) );
+        assertEquals( "zebra", dictionary.searchSuggestions( "zebar" ).get( 0 ).getWord() );
+        assertEquals( "houseboat", dictionary.searchSuggestions( "housebaot" ).get( 0 ).getWord() );
+
+        // a word of the tree is not added again
+        dictionary.add( "house" );
+        assertEquals( 6, dictionary.getAddedWordCount() );
+
+        assertEquals( Arrays.asList( "a", "ho", "hostess", "houseboat", "mouses", "zebra" ), dictionary.getAddedWords() );
+        Dictionary merged = dictionary.createMerged( dictionary.getAddedWords() );
+        assertEquals( 0, merged.getAddedWordCount() );
+        for( String word : added ) {
+            assertTrue( word, merged.exist( word ) );
+        }
+        for( String word : WORDS ) {
+            assertTrue( word, merged.exist( word ) );
+        }
+    }
+
+    public void testOverlayRandom() throws Exception {
+        List<String> words = loadWords( "en", 20000 );
+        ArrayList<String> shuffled = new ArrayList<String>( words );
+        Collections.shuffle( shuffled, new Random( 7 ) );
+        OverlayDictionary overlay = new OverlayDictionary();
+        for( String word : shuffled ) {
+            overlay.add( word );
+        }
+        assertEquals( words.size(), overlay.getWordCount() );
+        Iterator<String> iterator = overlay.words();
+        for( String word : words ) {
+            assertEquals( word, iterator.next() );
+        }
+        assertFalse( iterator.hasNext() );
+
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary expected = builder.create();
+        String[] misspelled = { "speling", "hosue", "recieve", "teh", "abandonned" };
+        for( String word : misspelled ) {
+            assertEquals( word, toString( expected.searchSuggestions( word ) ), toString( overlay.searchSuggestions( word ) ) );
+        }
+
+        overlay.trimToSize();
+        builder.loadWords( words.iterator() );
+        assertTrue( Arrays.equals( builder.createTree(), overlay.tree ) );
+        for( String word : words ) {
+            assertTrue( word, overlay.exist( word ) );
+        }
+    }
+
+    public void testOverlayAddAfterTrim() {
+        Dictionary dictionary = createDictionary();
+        List<String> words = Arrays.asList( "talk", "walk", "talked", "walked", "xy" );
+        dictionary.addWords( words.iterator() );
+        dictionary.add( "tbx" );
+        dictionary.add( "talks" );
+        for( String word : words ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        assertTrue( dictionary.exist( "tbx" ) );
+        assertTrue( dictionary.exist( "talks" ) );
+        // words with the same suffix must not change
+        assertFalse( dictionary.exist( "wbx" ) );
+        assertFalse( dictionary.exist( "walks" ) );
+        assertEquals( words.size() + 2, dictionary.getAddedWordCount() );
+
+        // a long word ends in a chain of nodes with one item, this must not be a run node
+        dictionary.addWords( Arrays.asList( "abcdefgh" ).iterator() );
+        dictionary.add( "abcdxyz" );
+        assertTrue( dictionary.exist( "abcdefgh" ) );
+        assertTrue( dictionary.exist( "abcdxyz" ) );
+        assertFalse( dictionary.exist( "abcd" ) );
+    }
+
+    public void testSearchSuggestions() {
+        Dictionary dictionary = createDictionary();
+        List<Suggestion> list = dictionary.searchSuggestions( "hosue" );
+        assertTrue( list.size() > 0 );
+        assertEquals( "house", list.get( 0 ).getWord() );
+
+        list = dictionary.searchSuggestions( "speling" );
+        assertEquals( "spelling", list.get( 0 ).getWord() );
+
+        assertEquals( 0, dictionary.searchSuggestions( "house" ).size() );
+    }
+
+    public void testSearchSuggestionsLimit() throws Exception {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( loadWords( "en", 50000 ).iterator() );
+        Dictionary dictionary = builder.create();
+        String[] misspelled = { "speling", "hosue", "recieve", "teh", "abandonned", "acommodate", "aa", "ab" };
+        for( String word : misspelled ) {
+            List<Suggestion> all = dictionary.searchSuggestions( word );
+            for( int limit = 1; limit <= 20; limit += 3 ) {
+                List<Suggestion> expected = all.subList( 0, Math.min( limit, all.size() ) );
+                List<Suggestion> list = dictionary.searchSuggestions( word, limit );
+                assertEquals( word + " " + limit, expected.toString(), list.toString() );
+                for( int i = 0; i < list.size(); i++ ) {
+                    assertEquals( word + " " + limit, expected.get( i ).getDissimilarity(), list.get( i ).getDissimilarity() );
+                }
+            }
+        }
+        assertEquals( 0, dictionary.searchSuggestions( "speling", 0 ).size() );
+    }
+
+    public void testSearchSuggestionsLongWord() {
+        String longWord = "donaudampfschifffahrtsgesellschaftskapitaensmuetzenabzeichen";
+        DictionaryFactory factory = new DictionaryFactory();
+        factory.add( longWord );
+        factory.add( "donau" );
+        Dictionary dictionary = factory.create();
+        String misspelled = longWord.substring( 0, 40 ) + longWord.substring( 41 );
+        List<Suggestion> list = dictionary.searchSuggestions( misspelled );
+        assertEquals( longWord, list.get( 0 ).getWord() );
+        assertEquals( 5, list.get( 0 ).getDissimilarity() );
+
+        list = dictionary.searchSuggestions( "dnoau" );
+        assertEquals( "donau", list.get( 0 ).getWord() );
+        assertEquals( 3, list.get( 0 ).getDissimilarity() );
+    }
+
+    public void testExistRange() {
+        Dictionary dictionary = createDictionary();
+        dictionary.add( "xylophonex" );
+        String text = " house, xylophonex houses";
+        assertTrue( dictionary.exist( text, 1, 6 ) );
+        assertFalse( dictionary.exist( text, 1, 5 ) );
+        assertFalse( dictionary.exist( text, 0, 6 ) );
+        assertFalse( dictionary.exist( text, 1, 1 ) );
+        assertTrue( dictionary.exist( text, 8, 18 ) );
+        assertTrue( dictionary.exist( new StringBuilder( text ), 19, 25 ) );
+        assertTrue( dictionary.exist( "Houses", 0, 6, 'h' ) );
+        assertFalse( dictionary.exist( "Houses", 0, 6, 'H' ) );
+        assertTrue( dictionary.exist( "Xylophonex", 0, 10, 'x' ) );
+        assertTrue( dictionary.exist( "Houses", 0, 6, 'H', 'h' ) );
+        assertTrue( dictionary.exist( "houses", 0, 6, 'h', 'H' ) );
+        assertTrue( dictionary.exist( "Xylophonex", 0, 10, 'X', 'x' ) );
+        assertFalse( dictionary.exist( "Housesx", 0, 7, 'H', 'h' ) );
+        assertFalse( dictionary.exist( "\u00C4houses", 0, 7, '\u00C4', '\u00E4' ) );
+    }
+
+    public void testMinimized() throws Exception {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( Arrays.asList( "talk", "talked", "talks", "walk", "walked", "walks" ).iterator() );
+        Dictionary dictionary = builder.create();
+        // the suffixes after the first character are shared
+        int t = dictionary.searchChar( dictionary.getRoot(), 't' );
+        int w = dictionary.searchChar( dictionary.getRoot(), 'w' );
+        assertEquals( dictionary.readIndex( t ), dictionary.readIndex( w ) );
+        assertTrue( dictionary.exist( "walked" ) );
+        assertFalse( dictionary.exist( "walke" ) );
+        // "al" is a run node
+        assertEquals( DictionaryBase.LAST_CHAR, dictionary.getChar( dictionary.readIndex( t ) ) );
+        assertFalse( dictionary.exist( "tal" ) );
+        assertFalse( dictionary.exist( "tak" ) );
+        assertTrue( dictionary.exist( "talks" ) );
+        assertEquals( "talked", dictionary.searchSuggestions( "tolked" ).get( 0 ).toString() );
+
+        List<String> words = loadWords( "de", 50000 );
+        builder.loadWords( words.iterator() );
+        dictionary = builder.create();
+        Iterator<String> iterator = dictionary.words();
+        for( String word : words ) {
+            assertEquals( word, iterator.next() );
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        assertFalse( iterator.hasNext() );
+    }
+
+    public void testArrayLayout() throws Exception {
+        List<String> words = loadWords( "en", 30000 );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary dictionary = builder.create();
+        ArrayDictionary array = new ArrayDictionary( dictionary );
+        Iterator<String> expected = dictionary.words();
+        Iterator<String> iterator = array.words();
+        while( expected.hasNext() ) {
+            assertEquals( expected.next(), iterator.next() );
+        }
+        assertFalse( iterator.hasNext() );
+
+        Random random = new Random( 4 );
+        CharSequence[] tokens = new CharSequence[2000];
+        for( int i = 0; i < tokens.length; i++ ) {
+            String word = words.get( random.nextInt( words.size() ) );
+            tokens[i] = random.nextBoolean() ? word : word.substring( 1 );
+            assertEquals( word, dictionary.exist( tokens[i].toString() ), array.exist( tokens[i].toString() ) );
+        }
+        assertEquals( dictionary.exist( tokens ), array.exist( tokens ) );
+
+        String[] misspelled = { "abandonned", "bandonned", "acommodate", "zbacus", "aa" };
+        for( String word : misspelled ) {
+            assertEquals( word, dictionary.searchSuggestions( word ).toString(), array.searchSuggestions( word ).toString() );
+        }
+
+        array.add( "xylophonex" );
+        assertTrue( array.exist( "xylophonex" ) );
+        assertFalse( dictionary.exist( "xylophonex" ) );
+        assertEquals( 0, new ArrayDictionary( new DictionaryBuilder().create() ).searchSuggestions( "abc" ).size() );
+
+        // wide nodes with characters on every position of the packed longs and characters above 0x7FFF
+        builder = new DictionaryBuilder();
+        String chars = "abcdefghijk\u0416\u7FFF\u8000\uAC00\uFFFE";
+        for( int i = 0; i < chars.length(); i++ ) {
+            builder.add( chars.charAt( i ) + "x" );
+        }
+        array = new ArrayDictionary( builder.create() );
+        for( int i = 0; i < chars.length(); i++ ) {
+            assertTrue( array.exist( chars.charAt( i ) + "x" ) );
+            assertFalse( array.exist( chars.charAt( i ) + "y" ) );
+        }
+        assertFalse( array.exist( "lx" ) );
+        assertFalse( array.exist( "\u0000x" ) );
+        assertFalse( array.exist( "\u9000x" ) );
+    }
+
+    public void testDoubleArray() throws Exception {
+        List<String> words = loadWords( "de", 30000 );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary dictionary = builder.create();
+        DoubleArrayDictionary doubleArray = new DoubleArrayDictionary( dictionary );
+        Iterator<String> expected = dictionary.words();
+        Iterator<String> iterator = doubleArray.words();
+        while( expected.hasNext() ) {
+            assertEquals( expected.next(), iterator.next() );
+        }
+        assertFalse( iterator.hasNext() );
+
+        Random random = new Random( 5 );
+        CharSequence[] tokens = new CharSequence[2000];
+        for( int i = 0; i < tokens.length; i++ ) {
+            String word = words.get( random.nextInt( words.size() ) );
+            tokens[i] = random.nextBoolean() ? word : word.substring( 1 ) + '\u00df';
+            assertEquals( word, dictionary.exist( tokens[i].toString() ), doubleArray.exist( tokens[i].toString() ) );
+        }
+        assertEquals( dictionary.exist( tokens ), doubleArray.exist( tokens ) );
+
+        for( int i = 0; i < 20; i++ ) {
+            String word = words.get( random.nextInt( words.size() ) ) + 'e';
+            assertEquals( word, dictionary.searchSuggestions( word ).toString(), doubleArray.searchSuggestions( word ).toString() );
+        }
+
+        doubleArray.add( "Xylophonex" );
+        assertTrue( doubleArray.exist( "Xylophonex" ) );
+        assertFalse( doubleArray.exist( "Xylophon\u20ac" ) );
+        DoubleArrayDictionary empty = new DoubleArrayDictionary( new DictionaryBuilder().create() );
+        assertFalse( empty.exist( "abc" ) );
+        assertFalse( empty.words().hasNext() );
+        assertEquals( 0, empty.searchSuggestions( "abc" ).size() );
+    }
+
+    public void testPrefixTable() throws Exception {
+        List<String> words = loadWords( "de", 30000 );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary dictionary = builder.create();
+        Dictionary jump = new Dictionary( dictionary.tree );
+        jump.setPrefixTable( PrefixTable.create( jump ) );
+        assertTrue( jump.getPrefixTable().getSlotCount() <= PrefixTable.MAX_SLOTS );
+
+        Random random = new Random( 6 );
+        for( int i = 0; i < 5000; i++ ) {
+            String word = words.get( random.nextInt( words.size() ) );
+            switch( random.nextInt( 4 ) ) {
+                case 0:
+                    word = word.substring( 0, Math.min( word.length(), 1 + random.nextInt( 3 ) ) );
+                    break;
+                case 1:
+                    word = (char)('a' + random.nextInt( 26 )) + word.substring( 1 );
+                    break;
+                case 2:
+                    word = "\u0416" + word;
+                    break;
+            }
+            assertEquals( word, dictionary.exist( word ), jump.exist( word ) );
+            char first = word.charAt( 0 );
+            char other = Character.isUpperCase( first ) ? Character.toLowerCase( first ) : Character.toUpperCase( first );
+            if( other != first ) {
+                assertEquals( word, dictionary.exist( word, 0, word.length(), first, other ), jump.exist( word, 0, word.length(), first, other ) );
+            }
+        }
+        // the lookup trust the table, with the table of an empty dictionary no word is found
+        jump.setPrefixTable( PrefixTable.create( new DictionaryBuilder().create() ) );
+        assertFalse( jump.exist( "Haus" ) );
+    }
+
+    public void testExistBatch() throws Exception {
+        List<String> words = loadWords( "en", 20000 );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary dictionary = builder.create();
+        dictionary.add( "xylophonex" );
+
+        Random random = new Random( 3 );
+        CharSequence[] tokens = new CharSequence[5000];
+        for( int i = 0; i < tokens.length; i++ ) {
+            String word = words.get( random.nextInt( words.size() ) );
+            switch( random.nextInt( 6 ) ) {
+                case 0:
+                    word = word.substring( 0, random.nextInt( word.length() ) );
+                    break;
+                case 1:
+                    word = word + "q";
+                    break;
+                case 2:
+                    tokens[i] = new StringBuilder( word );
+                    continue;
+                case 3:
+                    word = i == 0 ? "xylophonex" : tokens[random.nextInt( i )].toString();
+                    break;
+            }
+            tokens[i] = word;
+        }
+        BitSet result = dictionary.exist( tokens );
+        for( int i = 0; i < tokens.length; i++ ) {
+            assertEquals( tokens[i].toString(), dictionary.exist( tokens[i].toString() ), result.get( i ) );
+        }
+        assertEquals( 0, dictionary.exist( new CharSequence[0] ).cardinality() );
+    }
+
+    public void testDeleteIndex() throws Exception {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( loadWords( "en", 50000 ).iterator() );
+        Dictionary dictionary = builder.create();
+        assertNull( DeleteIndex.create( dictionary, 1000 ) );
+        DeleteIndex index = DeleteIndex.create( dictionary, Integer.MAX_VALUE );
+        assertNotNull( index );
+
+        String[] misspelled = { "abandonned", "bandonned", "acommodate", "cacomodate", "bacus", "zbacus", "aa" };
+        for( String word : misspelled ) {
+            dictionary.setSuggestionEngine( null );
+            List<Suggestion> expected = dictionary.searchSuggestions( word, 5 );
+            dictionary.setSuggestionEngine( index );
+            List<Suggestion> list = dictionary.searchSuggestions( word, 5 );
+            assertEquals( word, expected.isEmpty(), list.isEmpty() );
+            if( expected.isEmpty() ) {
+                continue;
+            }
+            assertEquals( word, expected.get( 0 ).getWord(), list.get( 0 ).getWord() );
+            assertEquals( word, expected.get( 0 ).getDissimilarity(), list.get( 0 ).getDissimilarity() );
+        }
+
+        // the words of the overlay are searched with the tree walk
+        dictionary.add( "xylophonex" );
+        assertEquals( "xylophonex", dictionary.searchSuggestions( "xylophonexx", 1 ).get( 0 ).getWord() );
+    }
+
+    public void testSuggestionCache() {
+        Dictionary dictionary = createDictionary();
+        SuggestionCache cache = SpellChecker.getSuggestionCache();
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        List<Suggestion> list = dictionary.searchSuggestions( "hosue", 5 );
+        assertEquals( misses + 1, cache.getMissCount() );
+        assertEquals( list.toString(), dictionary.searchSuggestions( "hosue", 5 ).toString() );
+        assertEquals( hits + 1, cache.getHitCount() );
+        assertFalse( list.toString().contains( "hosuee" ) );
+
+        // adding a word must invalidate the cached suggestions
+        dictionary.add( "hosuee" );
+        list = dictionary.searchSuggestions( "hosue", 5 );
+        assertEquals( misses + 2, cache.getMissCount() );
+        assertTrue( list.toString(), list.toString().contains( "hosuee" ) );
+
+        SuggestionCache small = new SuggestionCache( 2 );
+        small.put( 1, "a", 5, list );
+        small.put( 1, "b", 5, list );
+        assertNotNull( small.get( 1, "a", 5 ) );
+        small.put( 1, "c", 5, list );
+        assertEquals( 2, small.getSize() );
+        assertEquals( 1, small.getEvictionCount() );
+        assertNull( small.get( 1, "b", 5 ) );
+        assertNull( small.get( 2, "a", 5 ) );
+        assertEquals( 1.0 / 3, small.getHitRate(), 0.0001 );
+        small.setMaxSize( 0 );
+        assertEquals( 0, small.getSize() );
+
+        // a large cache is split into segments, together they hold max size entries
+        SuggestionCache large = new SuggestionCache( 1000 );
+        for( int i = 0; i < 5000; i++ ) {
+            large.put( 1, "word" + i, 5, list );
+        }
+        assertEquals( 1000, large.getSize() );
+        assertEquals( 4000, large.getEvictionCount() );
+        assertNotNull( large.get( 1, "word4999", 5 ) );
+        large.setMaxSize( 10 );
+        assertEquals( 10, large.getSize() );
+        assertNotNull( large.get( 1, "word4999", 5 ) );
+
+        // a small max size has only one segment with an exact LRU order
+        large.setMaxSize( 5 );
+        for( int i = 0; i < 5; i++ ) {
+            large.put( 2, "word" + i, 5, list );
+        }
+        for( int i = 0; i < 5; i++ ) {
+            assertNotNull( "word" + i, large.get( 2, "word" + i, 5 ) );
+        }
+
+        // a larger max size creates more segments again and keeps the entries
+        large.setMaxSize( 2000 );
+        assertEquals( 5, large.getSize() );
+        assertNotNull( large.get( 2, "word0", 5 ) );
+        for( int i = 0; i < 5000; i++ ) {
+            large.put( 3, "word" + i, 5, list );
+        }
+        assertEquals( 2000, large.getSize() );
+    }
+
+    public void testPrecompiled() throws Exception {
+        Dictionary dictionary = createDictionary();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrecompiledDictionary.save( dictionary, output );
+        byte[] data = output.toByteArray();
+        assertEquals( PrecompiledDictionary.HEADER_SIZE + 2 * dictionary.getDataSize(), data.length );
+
+        Dictionary loaded = PrecompiledDictionary.load( new ByteArrayInputStream( data ) );
+        assertTrue( Arrays.equals( dictionary.toArray(), loaded.toArray() ) );
+        for( String word : WORDS ) {
+            assertTrue( word, loaded.exist( word ) );
+        }
+
+        data[data.length - 1]++;
+        try {
+            PrecompiledDictionary.load( new ByteArrayInputStream( data ) );
+            fail( "Checksum error expected" );
+        } catch( IOException ex ) {
+            // expected
+        }
+
+        // the added words are not part of the tree
+        dictionary.add( "zebra" );
+        try {
+            PrecompiledDictionary.save( dictionary, new ByteArrayOutputStream() );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException ex ) {
+            // expected
+        }
+    }
+
+    public void testBreadthFirstLayout() throws Exception {
+        List<String> words = loadWords( "de", 30000 );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary dictionary = builder.create();
+        char[] tree = Arrays.copyOf( dictionary.tree, dictionary.size );
+        assertEquals( tree.length, BreadthFirstLayout.reorder( tree, 0 ).length );
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrecompiledDictionary.save( dictionary, output, 2 );
+        Dictionary loaded = PrecompiledDictionary.load( new ByteArrayInputStream( output.toByteArray() ) );
+        assertEquals( dictionary.size, loaded.size );
+        // the first child node of the root follows directly after the root
+        int rootSize = 0;
+        while( tree[rootSize] != DictionaryBase.LAST_CHAR ) {
+            rootSize += 3;
+        }
+        assertEquals( rootSize + 1, loaded.readIndex( 0 ) );
+
+        for( int levels : new int[] { 2, Integer.MAX_VALUE } ) {
+            Dictionary reordered = levels == 2 ? loaded : new Dictionary( BreadthFirstLayout.reorder( tree, levels ) );
+            Iterator<String> expected = dictionary.words();
+            Iterator<String> iterator = reordered.words();
+            while( expected.hasNext() ) {
+                assertEquals( expected.next(), iterator.next() );
+            }
+            assertFalse( iterator.hasNext() );
+            for( String word : words ) {
+                assertTrue( word, reordered.exist( word ) );
+            }
+            assertEquals( toString( dictionary.searchSuggestions( "Haustuer" ) ), toString( reordered.searchSuggestions( "Haustuer" ) ) );
+        }
+    }
+
+    public void testMemoryMapped() throws Exception {
+        DictionaryFactory factory = new DictionaryFactory();
+        List<String> words = loadWords( "en", 20000 );
+        factory.loadWords( words.iterator() );
+        Dictionary dictionary = factory.create();
+
+        File file = File.createTempFile( "dictionary", PrecompiledDictionary.EXTENSION );
+        file.deleteOnExit();
+        FileOutputStream output = new FileOutputStream( file );
+        PrecompiledDictionary.save( dictionary, output );
+        output.close();
+
+        MappedDictionary mapped = new MappedDictionary( file );
+        assertEquals( dictionary.getDataSize(), mapped.getDataSize() );
+        for( String word : words ) {
+            assertTrue( word, mapped.exist( word ) );
+        }
+        String[] misspelled = { "speling", "hosue", "recieve", "teh", "abandonned" };
+        for( String word : misspelled ) {
+            assertEquals( word, toString( dictionary.searchSuggestions( word ) ), toString( mapped.searchSuggestions( word ) ) );
+        }
+
+        assertFalse( mapped.exist( "jortho" ) );
+        mapped.add( "jortho" );
+        assertTrue( mapped.exist( "jortho" ) );
+        assertEquals( "jortho", mapped.searchSuggestions( "jortoh" ).get( 0 ).getWord() );
+    }
+
+    public void testWords() {
+        Dictionary dictionary = createDictionary();
+        ArrayList<String> expected = new ArrayList<String>( Arrays.asList( WORDS ) );
+        Collections.sort( expected );
+        ArrayList<String> words = new ArrayList<String>();
+        Iterator<String> iterator = dictionary.words();
+        while( iterator.hasNext() ) {
+            words.add( iterator.next() );
+        }
+        assertEquals( expected, words );
+        assertFalse( new Dictionary().words().hasNext() );
+    }
+
+    public void testBuilder() throws Exception {
+        List<String> words = loadWords( "en", 50000 );
+        DictionaryFactory factory = new DictionaryFactory();
+        factory.loadWords( words.iterator() );
+        Dictionary expected = factory.create();
+
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary dictionary = builder.create();
+        assertEquals( expected.getDataSize(), dictionary.getDataSize() );
+        for( String word : words ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        Iterator<String> iterator = dictionary.words();
+        for( String word : words ) {
+            assertEquals( word, iterator.next() );
+        }
+        assertFalse( iterator.hasNext() );
+        String[] misspelled = { "speling", "hosue", "recieve", "teh", "abandonned", "a", "aa" };
+        for( String word : misspelled ) {
+            assertEquals( word, toString( expected.searchSuggestions( word ) ), toString( dictionary.searchSuggestions( word ) ) );
+        }
+
+        assertEquals( 1, builder.create().getDataSize() );
+    }
+
+    public void testBuilderUnsorted() {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( Arrays.asList( WORDS ).iterator() );
+        Dictionary dictionary = builder.create();
+        assertTrue( Arrays.equals( createDictionary().toArray(), dictionary.toArray() ) );
+        for( String word : WORDS ) {
+            assertTrue( word, dictionary.exist( word ) );
+        }
+        assertFalse( dictionary.exist( "hous" ) );
+    }
+
+    public void testBuilderParallel() throws Exception {
+        List<String> words = loadWords( "en", 50000 );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( words.iterator() );
+        Dictionary expected = builder.create();
+
+        builder = new DictionaryBuilder( true );
+        builder.loadWords( words.iterator() );
+        assertTrue( Arrays.equals( expected.toArray(), builder.create().toArray() ) );
+
+        // unsorted words are sorted in the partitions
+        ArrayList<String> shuffled = new ArrayList<String>( words );
+        Collections.shuffle( shuffled, new Random( 42 ) );
+        shuffled.addAll( words.subList( 0, 100 ) );
+        builder = new DictionaryBuilder( true );
+        builder.loadWords( shuffled.iterator() );
+        assertTrue( Arrays.equals( expected.toArray(), builder.create().toArray() ) );
+
+        assertEquals( 1, builder.create().getDataSize() );
+    }
+
+    public void testBuilderMerge() {
+        List<String> words1 = Arrays.asList( "house", "mouse", "the" );
+        List<String> words2 = Arrays.asList( "horse", "house", "then", "xylophone" );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( DictionaryBuilder.merge( words1.iterator(), words2.iterator() ) );
+        Dictionary dictionary = builder.create();
+        ArrayList<String> words = new ArrayList<String>();
+        Iterator<String> iterator = dictionary.words();
+        while( iterator.hasNext() ) {
+            words.add( iterator.next() );
+        }
+        assertEquals( Arrays.asList( "horse", "house", "mouse", "the", "then", "xylophone" ), words );
+    }
+
+    /**
+     * Create a sorted string of the suggestions that is independent of the order of equals dissimilarities.
+     */
+    static String toString( List<Suggestion> list ) {
+        ArrayList<String> result = new ArrayList<String>();
+        for( Suggestion suggestion : list ) {
+            result.add( suggestion.getDissimilarity() + ":" + suggestion.getWord() );
+        }
+        Collections.sort( result );
+        return result.toString();
+    }
+
+    /**
+     * Query the same dictionary from multiple threads and compare with the results of a single thread.
+     */
+    public void testConcurrentLookup() throws Exception {
+        final Dictionary dictionary;
+        DictionaryFactory factory = new DictionaryFactory();
+        final List<String> words = loadWords( "en", 20000 );
+        factory.loadWords( words.iterator() );
+        dictionary = factory.create();
+
+        final String[] misspelled = { "speling", "hosue", "recieve", "teh", "wierd", "acommodate", "definately", "seperate" };
+        final List<List<Suggestion>> expected = new ArrayList<List<Suggestion>>();
+        for( String word : misspelled ) {
+            expected.add( dictionary.searchSuggestions( word ) );
+        }
+
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[8];
+        for( int t = 0; t < threads.length; t++ ) {
+            final int offset = t;
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for( int n = 0; n < 5; n++ ) {
+                            for( int i = 0; i < words.size(); i++ ) {
+                                String word = words.get( (i + offset * 997) % words.size() );
+                                if( !dictionary.exist( word ) ) {
+                                    throw new AssertionError( "Word not found: " + word );
+                                }
+                            }
+                            for( int i = 0; i < misspelled.length; i++ ) {
+                                int k = (i + offset) % misspelled.length;
+                                List<Suggestion> list = dictionary.searchSuggestions( misspelled[k] );
+                                if( list.size() != expected.get( k ).size() ) {
+                                    throw new AssertionError( "Different suggestions for: " + misspelled[k] );
+                                }
+                            }
+                        }
+                    } catch( Throwable ex ) {
+                        failure[0] = ex;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for( Thread thread : threads ) {
+            thread.join();
+        }
+        if( failure[0] != null ) {
+            throw new Exception( failure[0] );
+        }
+    }
+
+    /**
+     * Add words while other threads read the dictionary. A word that was added before a read must be found.
+     */
+    public void testConcurrentAdd() throws Exception {
+        List<String> words = loadWords( "en", 20000 );
+        final List<String> base = words.subList( 0, words.size() / 2 );
+        final List<String> added = new ArrayList<String>( words.subList( words.size() / 2, words.size() ) );
+        Collections.shuffle( added, new Random( 11 ) );
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.loadWords( base.iterator() );
+        final Dictionary dictionary = builder.create();
+
+        final AtomicInteger addedCount = new AtomicInteger();
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[4];
+        for( int t = 0; t < threads.length; t++ ) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        int count;
+                        do {
+                            count = addedCount.get();
+                            for( int i = 0; i < count; i++ ) {
+                                if( !dictionary.exist( added.get( i ) ) ) {
+                                    throw new AssertionError( "Added word not found: " + added.get( i ) );
+                                }
+                            }
+                            for( int i = 0; i < base.size(); i += 97 ) {
+                                if( !dictionary.exist( base.get( i ) ) ) {
+                                    throw new AssertionError( "Word not found: " + base.get( i ) );
+                                }
+                            }
+                        } while( count < 1000 );
+                    } catch( Throwable ex ) {
+                        failure[0] = ex;
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for( int i = 0; i < 1000; i++ ) {
+            dictionary.add( added.get( i ) );
+            addedCount.set( i + 1 );
+        }
+        for( Thread thread : threads ) {
+            thread.join();
+        }
+        if( failure[0] != null ) {
+            throw new Exception( failure[0] );
+        }
+    }
+}
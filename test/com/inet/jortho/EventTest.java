@@ -22,6 +22,8 @@
  */
 package com.inet.jortho;
 
+import java.util.Locale;
+
 import javax.swing.*;
 
 import junit.framework.TestCase;
@@ -77,6 +79,62 @@ public class EventTest extends TestCase {
         
     }
 
+    public void testMergeAddedWords() throws Exception {
+        final Locale[] changed = new Locale[1];
+        LanguageChangeListener listener = new LanguageChangeListener() {
+            public void languageChanged( LanguageChangeEvent ev ) {
+                synchronized( changed ) {
+                    changed[0] = ev.getCurrentLocale();
+                    changed.notifyAll();
+                }
+            }
+        };
+        SpellChecker.addLanguageChangeLister( listener );
+        try {
+            // wait until the English dictionary is loaded and the language changes of other tests are finished
+            for( int i = 0; i < 10; i++ ) {
+                synchronized( changed ) {
+                    changed[0] = null;
+                    changed.wait( 2000 );
+                    if( changed[0] != null ) {
+                        continue;
+                    }
+                }
+                if( Locale.ENGLISH.equals( SpellChecker.getCurrentLocale() ) ) {
+                    break;
+                }
+                SpellChecker.registerDictionaries( SpellChecker.class.getResource( "i18n/resource/languages/" ), "en", "en" );
+            }
+            final DictionaryBase dictionary = SpellChecker.getCurrentDictionary();
+            assertNotNull( "Dictionary", dictionary );
+            assertEquals( "Locale", Locale.ENGLISH, SpellChecker.getCurrentLocale() );
+
+            synchronized( changed ) {
+                changed[0] = null;
+            }
+            SwingUtilities.invokeAndWait( new Runnable() {
+                public void run() {
+                    for( int i = 0; i < SpellChecker.MERGE_THRESHOLD; i++ ) {
+                        dictionary.add( "mergetest" + i );
+                    }
+                    SpellChecker.mergeAddedWords();
+                }
+            } );
+            synchronized( changed ) {
+                for( int i = 0; i < 100 && changed[0] == null; i++ ) {
+                    changed.wait( 100 );
+                }
+            }
+            assertEquals( "Locale", Locale.ENGLISH, changed[0] );
+            DictionaryBase merged = SpellChecker.getCurrentDictionary();
+            assertNotSame( dictionary, merged );
+            assertTrue( merged.exist( "mergetest1" ) );
+            assertEquals( 0, merged.getAddedWordCount() );
+        } finally {
+            SpellChecker.removeLanguageChangeLister( listener );
+        }
+    }
+
     /**
      * Compare 2 JRadioButtonMenuItem
      */
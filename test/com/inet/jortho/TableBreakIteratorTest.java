@@ -0,0 +1,120 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class TableBreakIteratorTest extends TestCase {
+
+    /**
+     * Compare the boundaries of the table driven breaker with the BreakIterator of the Java runtime.
+     */
+    public void testTableBreakIterator() {
+        String chars = "aaaabBCeeXZ\u00e9\u00c9\u0416\u0436\u03b1\u03a9\u0628\u0640\u064b\u0301123\u0663\u00b2   ..,''\"--_!?()[]:;@/$\u20ac\u00a2%&#\u2030\u00ab\u00bb\u201c\u2027\u066b\u066a\t\n\r\u00a0\u4e00\u00ad";
+        String[] texts = { "Hello world.  Next one", "don't it's e.g. U.S.A. x", "well-known co--op a-", "abc123 12.5 1,000 3rd a1b",
+                        "http://www.inet.de/a_b test@example.com", "\u041f\u0440\u0438\u0432\u0435\u0442 \u043c\u0438\u0440. \u0415\u0449\u0451", "$5 #x @y %z 5% &amp;", "x...y a..b c. d", "He said \"Hi.\" Then (see) it!" };
+        BreakIterator javaWords = BreakIterator.getWordInstance( Locale.ENGLISH );
+        BreakIterator javaSentences = BreakIterator.getSentenceInstance( Locale.ENGLISH );
+        TableBreakIterator tableWords = new TableBreakIterator( false );
+        TableBreakIterator tableSentences = new TableBreakIterator( true );
+        Random random = new Random( 7 );
+        int supported = 0;
+        for( int i = 0; i < 20000; i++ ) {
+            String text;
+            if( i < texts.length ) {
+                text = texts[i];
+            } else {
+                StringBuilder builder = new StringBuilder();
+                for( int k = random.nextInt( 30 ); k >= 0; k-- ) {
+                    builder.append( chars.charAt( random.nextInt( chars.length() ) ) );
+                }
+                text = builder.toString();
+            }
+            tableWords.setText( text );
+            if( tableWords.isSupported() ) {
+                supported++;
+                assertEquals( text, getBoundaries( javaWords, text ), getBoundaries( tableWords, text ) );
+                for( int offset = 0; offset <= text.length(); offset++ ) {
+                    assertEquals( text, javaWords.following( offset ), tableWords.following( offset ) );
+                }
+            }
+            tableSentences.setText( text );
+            if( tableSentences.isSupported() ) {
+                assertEquals( text, getBoundaries( javaSentences, text ), getBoundaries( tableSentences, text ) );
+            }
+            if( i < texts.length ) {
+                assertTrue( text, tableWords.isSupported() && tableSentences.isSupported() );
+            }
+        }
+        assertTrue( supported > 5000 );
+
+        tableWords.setText( "ABC Abc AB1" );
+        assertTrue( tableWords.isAllCapitalized( 0 ) );
+        assertFalse( tableWords.isAllCapitalized( 4 ) );
+        assertTrue( tableWords.isAllCapitalized( 8 ) );
+        assertFalse( tableWords.isIncludeNumbers( 4 ) );
+        assertTrue( tableWords.isIncludeNumbers( 8 ) );
+    }
+
+    /**
+     * Get all boundaries of a text.
+     */
+    private static List<Integer> getBoundaries( BreakIterator breaker, String text ) {
+        breaker.setText( text );
+        List<Integer> result = new ArrayList<>();
+        for( int i = breaker.first(); i != BreakIterator.DONE; i = breaker.next() ) {
+            result.add( i );
+        }
+        return result;
+    }
+
+    /**
+     * The fast tokenizer must find the same misspellings as the BreakIterator.
+     */
+    public void testFastTokenizer() {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        String text = "The house. hoose the HOOSE and hose2.\nSpel the checker, e.g. http://www.inet.de/x test@example.com. Then 'hostel' isn't there!\n"
+                        + "\u041c\u043e\u0441\u043a\u0432\u0430 the \u0627\u0644\u0639\u0631\u0628\u064a\u0629. The \u4e2d\u6587 house.\n";
+        SpellCheckerOptions options = new SpellCheckerOptions();
+        SpellCheckerOptions fast = new SpellCheckerOptions();
+        fast.setFastTokenizer( true );
+        List<Misspelling> expected = checker.check( text, Locale.ENGLISH, options );
+        assertEquals( expected, checker.check( text, Locale.ENGLISH, fast ) );
+        assertTrue( expected.contains( new Misspelling( 11, "hoose", false ) ) );
+
+        options.setIgnoreAllCapsWords( false );
+        options.setIgnoreWordsWithNumbers( true );
+        fast.setIgnoreAllCapsWords( false );
+        fast.setIgnoreWordsWithNumbers( true );
+        expected = checker.check( text, Locale.ENGLISH, options );
+        assertEquals( expected, checker.check( text, Locale.ENGLISH, fast ) );
+        assertTrue( expected.contains( new Misspelling( 21, "HOOSE", false ) ) );
+    }
+}
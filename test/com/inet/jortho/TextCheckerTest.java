@@ -0,0 +1,180 @@
+/*
+ *  JOrtho
+ *
+ *  Copyright (C) 2005-2026 by i-net software
+ *
+ *  This program is free software; you can redistribute it and/or
+ *  modify it under the terms of the GNU General Public License as 
+ *  published by the Free Software Foundation; either version 2 of the
+ *  License, or (at your option) any later version. 
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ *  General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307
+ *  USA.
+ *  
+ * Created on 18.10.2026
+ */
+package com.inet.jortho;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import javax.swing.JTextArea;
+
+import junit.framework.TestCase;
+
+public class TextCheckerTest extends TestCase {
+
+    /**
+     * Check a text without a text component and compare it with the Tokenizer of a text component.
+     */
+    public void testTextChecker() throws Exception {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        assertTrue( checker.hasDictionary( Locale.ENGLISH ) );
+        assertTrue( checker.hasDictionary( Locale.UK ) );
+        assertFalse( checker.hasDictionary( Locale.GERMAN ) );
+
+        String text = "The house. Hoose the horse.\nthe mouse: Spel the checker test@example.com\nThere hostel theirr";
+        List<Misspelling> list = checker.check( text, Locale.UK, null );
+        assertEquals( Arrays.asList( new Misspelling( 11, "Hoose", true ), new Misspelling( 39, "Spel", true ), new Misspelling( 86, "theirr", false ) ), list );
+        for( Misspelling misspelling : list ) {
+            int offset = (int)misspelling.getOffset();
+            assertEquals( misspelling.getWord(), text.substring( offset, offset + misspelling.getLength() ) );
+        }
+
+        // the same rules as for a text component
+        JTextArea textArea = new JTextArea( text );
+        Tokenizer tokenizer = new Tokenizer( textArea, DictionaryTest.createDictionary(), Locale.ENGLISH, new SpellCheckerOptions() );
+        ArrayList<Misspelling> expected = new ArrayList<Misspelling>();
+        for( String word; (word = tokenizer.nextInvalidWord()) != null; ) {
+            expected.add( new Misspelling( tokenizer.getWordOffset(), word, tokenizer.isFirstWordInSentence() ) );
+        }
+        assertEquals( expected, list );
+
+        try {
+            checker.check( text, Locale.GERMAN, null );
+            fail( "IllegalArgumentException expected" );
+        } catch( IllegalArgumentException ex ) {
+            // expected
+        }
+        checker.setDictionary( Locale.ENGLISH, null );
+        assertFalse( checker.hasDictionary( Locale.ENGLISH ) );
+    }
+
+    /**
+     * Check a stream with different window sizes and compare it with the check of the complete text.
+     */
+    public void testTextCheckerStream() throws Exception {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        StringBuilder builder = new StringBuilder();
+        Random random = new Random( 3 );
+        for( int i = 0; i < 2000; i++ ) {
+            String word = DictionaryTest.WORDS[random.nextInt( DictionaryTest.WORDS.length )];
+            switch( random.nextInt( 12 ) ) {
+                case 0:
+                    word = word.substring( 1 );
+                    break;
+                case 1:
+                    word = Character.toUpperCase( word.charAt( 0 ) ) + word.substring( 1 );
+                    break;
+            }
+            builder.append( word );
+            switch( random.nextInt( 10 ) ) {
+                case 0:
+                    builder.append( ". " );
+                    break;
+                case 1:
+                    // long lines for the cut on sentences
+                    builder.append( i < 1000 ? '\n' : ' ' );
+                    break;
+                default:
+                    builder.append( ' ' );
+            }
+        }
+        String text = builder.toString();
+        List<Misspelling> expected = checker.check( text, Locale.ENGLISH, null );
+        assertTrue( expected.size() > 100 );
+
+        for( int windowSize : new int[] { 40, 100, 1000, TextChecker.WINDOW_SIZE } ) {
+            final List<Misspelling> list = new ArrayList<Misspelling>();
+            checker.check( new StringReader( text ), Locale.ENGLISH, null, new MisspellingListener() {
+                public void misspellingFound( Misspelling misspelling ) {
+                    list.add( misspelling );
+                }
+            }, windowSize );
+            assertEquals( "window size: " + windowSize, expected, list );
+        }
+
+        final List<Misspelling> list = new ArrayList<Misspelling>();
+        checker.check( Channels.newChannel( new ByteArrayInputStream( text.getBytes( "UTF-8" ) ) ), Charset.forName( "UTF-8" ), Locale.ENGLISH, null, new MisspellingListener() {
+            public void misspellingFound( Misspelling misspelling ) {
+                list.add( misspelling );
+            }
+        } );
+        assertEquals( expected, list );
+    }
+
+    /**
+     * A word that is larger as the window must not be split into two words.
+     */
+    public void testTextCheckerStreamLongWord() throws Exception {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        String text = "The spelling checker. Hoooooooooose the horse spelling\nspellingspelling house";
+        List<Misspelling> expected = checker.check( text, Locale.ENGLISH, null );
+        assertEquals( Arrays.asList( new Misspelling( 22, "Hoooooooooose", true ), new Misspelling( 55, "spellingspelling", true ) ), expected );
+        for( int windowSize = 1; windowSize < 40; windowSize++ ) {
+            final List<Misspelling> list = new ArrayList<Misspelling>();
+            checker.check( new StringReader( text ), Locale.ENGLISH, null, new MisspellingListener() {
+                public void misspellingFound( Misspelling misspelling ) {
+                    list.add( misspelling );
+                }
+            }, windowSize );
+            assertEquals( "window size: " + windowSize, expected, list );
+        }
+    }
+
+    /**
+     * Check a large text on all processors and compare it with the check on one thread.
+     */
+    public void testParallelCheck() throws Exception {
+        TextChecker checker = new TextChecker();
+        checker.setDictionary( Locale.ENGLISH, DictionaryTest.createDictionary() );
+        StringBuilder builder = new StringBuilder();
+        Random random = new Random( 5 );
+        while( builder.length() < 10 * ParallelChecker.THRESHOLD ) {
+            String word = DictionaryTest.WORDS[random.nextInt( DictionaryTest.WORDS.length )];
+            if( random.nextInt( 10 ) == 0 ) {
+                word = word.substring( 1 );
+            }
+            builder.append( word ).append( random.nextInt( 30 ) == 0 ? ".\n" : random.nextInt( 10 ) == 0 ? ". " : " " );
+        }
+        String text = builder.toString();
+        List<Misspelling> expected = checker.check( text, Locale.ENGLISH, null );
+        assertTrue( expected.size() > 1000 );
+
+        SpellCheckerOptions options = new SpellCheckerOptions();
+        options.setParallelCheck( true );
+        assertEquals( expected, checker.check( text, Locale.ENGLISH, options ) );
+
+        // a small text and a text without line breaks are checked on the current thread
+        assertEquals( checker.check( "hose ouse", Locale.ENGLISH, null ), checker.check( "hose ouse", Locale.ENGLISH, options ) );
+        text = text.replace( '\n', ' ' );
+        assertEquals( checker.check( text, Locale.ENGLISH, null ), checker.check( text, Locale.ENGLISH, options ) );
+    }
+}
@@ -32,4 +32,19 @@ public class UtilsTest  extends TestCase{
         assertEquals( "ab\"c", Utils.replaceUnicodeQuotation( "ab\u201fc" ));
         assertEquals( "ab-c", Utils.replaceUnicodeQuotation( "ab\u2015c" ));
     }
+
+    public void testInvertedCase(){
+        for( char ch = 0; ch < 0x300; ch++ ) {
+            char inverted = Utils.getInvertedCase( ch );
+            if( inverted != 0 ) {
+                String word = ch + "x";
+                assertEquals( Integer.toHexString( ch ), Utils.getInvertedCapitalizion( word ), inverted + "x" );
+            }
+        }
+        assertEquals( 0, Utils.getInvertedCase( '\u00DF' ) );
+        assertEquals( 'A', Utils.getInvertedCase( 'a' ) );
+        assertEquals( '\u00E4', Utils.getInvertedCase( '\u00C4' ) );
+        assertTrue( Utils.isAllCapitalized( "xxABC-xx", 2, 6 ) );
+        assertFalse( Utils.isIncludeNumbers( "1abc1", 1, 4 ) );
+    }
 }